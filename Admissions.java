@@ -1,26 +1,47 @@
 // Admissions.java
 // Scoring models with clear weights & tunable thresholds.
 
+import java.util.Properties;
+
 public class Admissions {
 
-    // === Configurable parameters (can be tweaked for experiments) ===
-    public static double MAX_GPA = 4.0;
-    public static double MAX_TEST = Double.parseDouble(System.getProperty("maxTest", "1600")); // override: -DmaxTest=36
+    // === Default parameters (can be tweaked for experiments) ===
+    // Scoring reads these through an immutable WeightProfile, DEFAULT, which
+    // applies the two system property overrides -DmaxTest (e.g. 36) and
+    // -DlowIncome (e.g. 50000) on top; code that reads MAX_TEST or
+    // LOW_INCOME_THRESHOLD directly does not see them. Other policies can be
+    // built in code or loaded from a file and scored on other threads at the
+    // same time.
+    public static final double MAX_GPA = 4.0;
+    public static final double MAX_TEST = 1600;
 
     // Blind weights (only performance/merit factors)
-    public static double W_GPA   = 0.45;
-    public static double W_TEST  = 0.30;
-    public static double W_EXTRA = 0.10;
-    public static double W_ESSAY = 0.10;
-    public static double W_REC   = 0.05;
+    public static final double W_GPA   = 0.45;
+    public static final double W_TEST  = 0.30;
+    public static final double W_EXTRA = 0.10;
+    public static final double W_ESSAY = 0.10;
+    public static final double W_REC   = 0.05;
 
     // Aware bonuses (equity & context)
-    public static double LOW_INCOME_THRESHOLD = Double.parseDouble(System.getProperty("lowIncome", "40000"));
-    public static double BONUS_LOW_INCOME = 0.05;
-    public static double BONUS_FIRST_GEN  = 0.05;
-    public static double BONUS_DISABILITY = 0.03;
-    public static double BONUS_LEGACY     = 0.02; // you can set this to 0 or negative if you want to neutralize/penalize
-    public static double BONUS_LOCAL      = 0.03;
+    public static final double LOW_INCOME_THRESHOLD = 40000;
+    public static final double BONUS_LOW_INCOME = 0.05;
+    public static final double BONUS_FIRST_GEN  = 0.05;
+    public static final double BONUS_DISABILITY = 0.03;
+    public static final double BONUS_LEGACY     = 0.02; // you can set this to 0 or negative if you want to neutralize/penalize
+    public static final double BONUS_LOCAL      = 0.03;
+
+    // The constants above with -DmaxTest and -DlowIncome applied; other
+    // system properties are ignored, even ones named like profile keys
+    public static final WeightProfile DEFAULT = WeightProfile.fromProperties(overrides("maxTest", "lowIncome"), WeightProfile.BUILT_IN);
+
+    private static Properties overrides(String... keys) {
+        Properties p = new Properties();
+        for (String key : keys) {
+            String v = System.getProperty(key);
+            if (v != null) p.setProperty(key, v);
+        }
+        return p;
+    }
 
     private static double clamp01(double x) {
         if (x < 0) return 0;
@@ -36,32 +57,177 @@ public class Admissions {
 
     // Blind model (performance only)
     public static double blindScore(Applicant app) {
+        return blindScore(app, DEFAULT);
+    }
+
+    public static double blindScore(Applicant app, WeightProfile p) {
+        return blindScore(p, app.gpa, app.test, app.extra, app.essay, app.rec);
+    }
+
+    // Blind model against row i of a columnar table
+    public static double blindScore(ApplicantTable t, int i) {
+        return blindScore(t, i, DEFAULT);
+    }
+
+    public static double blindScore(ApplicantTable t, int i, WeightProfile p) {
+        return blindScore(p, t.gpa[i], t.test[i], t.extra[i], t.essay[i], t.rec[i]);
+    }
+
+    private static double blindScore(WeightProfile p, double gpa, int test, double extra, double essay, double rec) {
         // normalize core features to [0,1]
-        double gpaN   = clamp01(nz(app.gpa) / MAX_GPA);
-        double testN  = clamp01(nz(app.test) / MAX_TEST);
-        double extraN = clamp01(nz(app.extra)); // assumed already 0..1 in CSV
-        double essayN = clamp01(nz(app.essay)); // assumed 0..1
-        double recN   = clamp01(nz(app.rec));   // assumed 0..1
+        double gpaN   = clamp01(nz(gpa) / p.maxGpa);
+        double testN  = clamp01(nz(test) / p.maxTest);
+        double extraN = clamp01(nz(extra)); // assumed already 0..1 in CSV
+        double essayN = clamp01(nz(essay)); // assumed 0..1
+        double recN   = clamp01(nz(rec));   // assumed 0..1
 
         double score = 0.0;
-        score += gpaN   * W_GPA;
-        score += testN  * W_TEST;
-        score += extraN * W_EXTRA;
-        score += essayN * W_ESSAY;
-        score += recN   * W_REC;
+        score += gpaN   * p.wGpa;
+        score += testN  * p.wTest;
+        score += extraN * p.wExtra;
+        score += essayN * p.wEssay;
+        score += recN   * p.wRec;
 
         return clamp01(score);
     }
 
+    // Blind model for rows [from, to) of a table, written to out[from, to).
+    // Same arithmetic (and results) as blindScore, but one tight loop over the
+    // columns with the parameters hoisted into locals.
+    public static void blindScores(ApplicantTable t, int from, int to, double[] out) {
+        blindScores(t, from, to, out, DEFAULT);
+    }
+
+    public static void blindScores(ApplicantTable t, int from, int to, double[] out, WeightProfile p) {
+        final double[] gpa = t.gpa, extra = t.extra, essay = t.essay, rec = t.rec;
+        final int[] test = t.test;
+        final double maxGpa = p.maxGpa, maxTest = p.maxTest;
+        final double wGpa = p.wGpa, wTest = p.wTest, wExtra = p.wExtra, wEssay = p.wEssay, wRec = p.wRec;
+
+        for (int i = from; i < to; i++) {
+            double score = 0.0;
+            score += clampFast(finiteOr0(gpa[i]) / maxGpa) * wGpa;
+            score += clampFast(test[i] / maxTest)          * wTest; // an int is always finite
+            score += clampFast(finiteOr0(extra[i]))        * wExtra;
+            score += clampFast(finiteOr0(essay[i]))        * wEssay;
+            score += clampFast(finiteOr0(rec[i]))          * wRec;
+            out[i] = clampFast(score);
+        }
+    }
+
+    // Rows per scoring batch; keeps the working set of all columns in L2
+    static final int BATCH = 4096;
+
+    // Rows each thread should get before a pass over the table is split
+    // across threads; below that, starting the threads costs more than they
+    // save and the pass stays on the calling thread
+    static final int MIN_ROWS_PER_THREAD = 1 << 16;
+
+    // Fused blind + aware scoring of every row in one pass, with both
+    // decisions at the given cutoff. This is the default path used by Main.
+    public static Scores score(ApplicantTable t, double cutoff) {
+        return score(t, cutoff, DEFAULT);
+    }
+
+    public static Scores score(ApplicantTable t, double cutoff, WeightProfile p) {
+        Scores s = new Scores(t.size(), cutoff, p);
+        for (int from = 0; from < t.size(); from += BATCH) {
+            int to = Math.min(t.size(), from + BATCH);
+            PipelineEvents.ScoringBatch event = new PipelineEvents.ScoringBatch();
+            event.begin();
+            scoreBatch(t, from, to, s);
+            if (event.shouldCommit()) {
+                event.firstRow = from;
+                event.rows = to - from;
+                event.cutoff = cutoff;
+                event.profile = p.name;
+                event.commit();
+            }
+        }
+        return s;
+    }
+
+    // Rows [from, to) into s. The blind part is blindScores' arithmetic; the
+    // bonuses are selected from the flag bitmaps without branches and added in
+    // the same order as awareScore, so both scores match the per-row methods.
+    static void scoreBatch(ApplicantTable t, int from, int to, Scores s) {
+        final double[] gpa = t.gpa, extra = t.extra, essay = t.essay, rec = t.rec, income = t.income;
+        final int[] test = t.test;
+        final long[] firstGen = t.firstGenBits.words, disability = t.disabilityBits.words;
+        final long[] legacy = t.legacyBits.words, local = t.localBits.words;
+        final WeightProfile p = s.profile;
+        final double maxGpa = p.maxGpa, maxTest = p.maxTest;
+        final double wGpa = p.wGpa, wTest = p.wTest, wExtra = p.wExtra, wEssay = p.wEssay, wRec = p.wRec;
+        final double lowIncome = p.lowIncomeThreshold, bLow = p.bonusLowIncome, bFirstGen = p.bonusFirstGen;
+        final double bDisability = p.bonusDisability, bLegacy = p.bonusLegacy, bLocal = p.bonusLocal;
+        final double cutoff = s.cutoff;
+        final double[] blindOut = s.blind, awareOut = s.aware;
+        final long[] blindAdm = s.blindAdmitted.words, awareAdm = s.awareAdmitted.words;
+
+        for (int i = from; i < to; i++) {
+            double score = 0.0;
+            score += clampFast(finiteOr0(gpa[i]) / maxGpa) * wGpa;
+            score += clampFast(test[i] / maxTest)          * wTest;
+            score += clampFast(finiteOr0(extra[i]))        * wExtra;
+            score += clampFast(finiteOr0(essay[i]))        * wEssay;
+            score += clampFast(finiteOr0(rec[i]))          * wRec;
+            double blind = clampFast(score);
+
+            int w = i >>> 6;
+            long bit = 1L << i;
+            double aware = blind;
+            aware += (income[i] < lowIncome)        ? bLow        : 0.0;
+            aware += ((firstGen[w] & bit) != 0)     ? bFirstGen   : 0.0;
+            aware += ((disability[w] & bit) != 0)   ? bDisability : 0.0;
+            aware += ((legacy[w] & bit) != 0)       ? bLegacy     : 0.0;
+            aware += ((local[w] & bit) != 0)        ? bLocal      : 0.0;
+            aware = clampFast(aware);
+
+            blindOut[i] = blind;
+            awareOut[i] = aware;
+            blindAdm[w] |= (blind >= cutoff) ? bit : 0L;
+            awareAdm[w] |= (aware >= cutoff) ? bit : 0L;
+        }
+    }
+
+    // Clamp to [0, 1] for the batch kernels. -0.0 becomes 0.0 and NaN
+    // passes through unchanged.
+    static double clampFast(double x) {
+        return x <= 0.0 ? 0.0 : (x > 1.0 ? 1.0 : x);
+    }
+
+    // nz without branches: x - x is 0 for finite x and NaN otherwise
+    static double finiteOr0(double x) {
+        return (x - x == 0.0) ? x : 0.0;
+    }
+
     // Aware model (adds contextual equity)
     public static double awareScore(Applicant app) {
-        double score = blindScore(app);
+        return awareScore(app, DEFAULT);
+    }
+
+    public static double awareScore(Applicant app, WeightProfile p) {
+        return awareScore(p, blindScore(app, p), app.income, app.firstGen, app.disability, app.legacy, app.local);
+    }
+
+    // Aware model against row i of a columnar table
+    public static double awareScore(ApplicantTable t, int i) {
+        return awareScore(t, i, DEFAULT);
+    }
+
+    public static double awareScore(ApplicantTable t, int i, WeightProfile p) {
+        return awareScore(p, blindScore(t, i, p), t.income[i], t.firstGen(i), t.disability(i), t.legacy(i), t.local(i));
+    }
+
+    private static double awareScore(WeightProfile p, double blind, double income, boolean firstGen,
+                                     boolean disability, boolean legacy, boolean local) {
+        double score = blind;
 
-        if (app.income < LOW_INCOME_THRESHOLD) score += BONUS_LOW_INCOME;
-        if (app.firstGen)                      score += BONUS_FIRST_GEN;
-        if (app.disability)                    score += BONUS_DISABILITY;
-        if (app.legacy)                        score += BONUS_LEGACY;
-        if (app.local)                         score += BONUS_LOCAL;
+        if (income < p.lowIncomeThreshold) score += p.bonusLowIncome;
+        if (firstGen)                      score += p.bonusFirstGen;
+        if (disability)                    score += p.bonusDisability;
+        if (legacy)                        score += p.bonusLegacy;
+        if (local)                         score += p.bonusLocal;
 
         return clamp01(score);
     }
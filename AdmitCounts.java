@@ -0,0 +1,40 @@
+// AdmitCounts.java
+// Admits, blind-vs-aware flips and per-group admits under one scoring: the
+// result shared by CutoffSweep, ProfileEvaluator and SensitivityAnalysis.
+// Group arrays follow the order of the groups map the analysis was given.
+
+import java.util.*;
+
+public class AdmitCounts {
+    public long blindAdmits, awareAdmits, flipsUp, flipsDown;
+    public final long[] groupBlindIn, groupAwareIn;
+
+    AdmitCounts(int groups) {
+        this.groupBlindIn = new long[groups];
+        this.groupAwareIn = new long[groups];
+    }
+
+    // Counts from the two decision bitmaps
+    void count(Bitmap blindAdmitted, Bitmap awareAdmitted, List<Bitmap> groups) {
+        long both = blindAdmitted.andCardinality(awareAdmitted);
+        blindAdmits = blindAdmitted.cardinality();
+        awareAdmits = awareAdmitted.cardinality();
+        flipsUp = awareAdmits - both;
+        flipsDown = blindAdmits - both;
+        for (int g = 0; g < groups.size(); g++) {
+            groupBlindIn[g] = groups.get(g).andCardinality(blindAdmitted);
+            groupAwareIn[g] = groups.get(g).andCardinality(awareAdmitted);
+        }
+    }
+
+    void merge(AdmitCounts o) {
+        blindAdmits += o.blindAdmits;
+        awareAdmits += o.awareAdmits;
+        flipsUp += o.flipsUp;
+        flipsDown += o.flipsDown;
+        for (int g = 0; g < groupBlindIn.length; g++) {
+            groupBlindIn[g] += o.groupBlindIn[g];
+            groupAwareIn[g] += o.groupAwareIn[g];
+        }
+    }
+}
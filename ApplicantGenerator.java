@@ -0,0 +1,239 @@
+// ApplicantGenerator.java
+// Synthetic applicants in the applicants.csv schema for load and scale tests.
+// Output depends only on the seed and row count: rows are generated in fixed
+// blocks, each from its own random stream, so any number of threads can
+// format blocks while one writer appends them to the file in order.
+//
+//   java ApplicantGenerator ROWS FILE [--seed=S] [--threads=N] [--malformed=RATE]
+//
+// Distributions: log-normal income; GPA and test score driven by a shared
+// latent ability (correlated, not identical); legacy more likely with high
+// income and first-gen with low income; some incomes written as "$45,000"
+// and some Yes/No in other cases; a small share of malformed rows.
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class ApplicantGenerator {
+
+    // Rows per block; fixed so the output does not depend on the thread count
+    static final int BLOCK_ROWS = 16384;
+
+    static final String HEADER = "Name,Age,Geography,Ethnicity,Income ($),Legacy,Local,GPA,Test,Extra,Essay,"
+            + "Letter of Recommendation,First-Gen,Disability\n";
+
+    private static final String[] FIRST = {"Alice", "Bob", "Carlos", "Diana", "Fatima", "George", "Hannah", "Ishaan",
+            "Jasmine", "Liam", "Maria", "Noah", "Olivia", "Priya", "Quentin", "Rosa", "Samuel", "Tomás", "Uma",
+            "Victor", "Wei", "Ximena", "Yusuf", "Zoë", "Aiyana", "Kai", "Leilani", "Mateo", "Nia", "Omar"};
+    private static final String[] LAST = {"Stark", "Parker", "Rivera", "Chen", "Al-Sayed", "Johnson", "Miller",
+            "Singh", "Okafor", "Wang", "García", "Nguyen", "Smith", "Kim", "Patel", "Brown", "Begay", "Kealoha",
+            "Hernández", "Williams", "Cohen", "Müller", "Ivanova", "Mensah", "Tanaka", "O'Brien", "Lopez", "Davis"};
+    private static final String[] PLACES = {"Jackson, MS", "Boston, MA", "Phoenix, AZ", "Chicago, IL",
+            "Los Angeles, CA", "New York, NY", "Fargo, ND", "Atlanta, GA", "Oakland, CA", "Las Cruces, NM",
+            "Albuquerque, NM", "El Paso, TX", "Austin, TX", "Denver, CO", "Seattle, WA", "Miami, FL", "Detroit, MI",
+            "Gallup, NM", "Honolulu, HI", "Reno, NV", "Toronto, Canada", "Mexico City, Mexico"};
+    // Cumulative weights, in percent
+    private static final String[] ETHNICITIES = {"White", "Latino", "Black", "Asian", "Indian", "Middle Eastern",
+            "Native American", "Pacific Islander"};
+    private static final int[] ETHNICITY_CUM = {45, 68, 81, 90, 94, 97, 99, 100};
+
+    private final long seed;
+    private double malformedRate = 0.001;
+
+    public ApplicantGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public ApplicantGenerator malformedRate(double rate) {
+        this.malformedRate = rate;
+        return this;
+    }
+
+    // Writes the header and `rows` applicants to file using `threads` formatters
+    public void write(Path file, long rows, int threads) throws IOException {
+        long blocks = (rows + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(out, HEADER.getBytes(StandardCharsets.UTF_8));
+
+            // A bounded window of blocks in flight keeps memory flat for any size
+            int window = Math.max(2, threads * 2);
+            ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+            for (long b = 0; b < blocks || !pending.isEmpty(); ) {
+                while (b < blocks && pending.size() < window) {
+                    long first = b * BLOCK_ROWS;
+                    int count = (int) Math.min(BLOCK_ROWS, rows - first);
+                    long block = b++;
+                    pending.add(pool.submit(() -> block(block, first, count)));
+                }
+                writeFully(out, pending.poll().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Generation interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Generation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Same rows as write, to a stream on the calling thread
+    public void write(OutputStream out, long rows) throws IOException {
+        out.write(HEADER.getBytes(StandardCharsets.UTF_8));
+        for (long b = 0, first = 0; first < rows; b++, first += BLOCK_ROWS) {
+            out.write(block(b, first, (int) Math.min(BLOCK_ROWS, rows - first)));
+        }
+        out.flush();
+    }
+
+    private static void writeFully(FileChannel out, byte[] bytes) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        while (buf.hasRemaining()) out.write(buf);
+    }
+
+    // Rows [first, first + count) of block b, as UTF-8 CSV lines
+    byte[] block(long b, long first, int count) {
+        SplittableRandom r = new SplittableRandom(mix(seed, b));
+        StringBuilder sb = new StringBuilder(count * 110);
+        for (int i = 0; i < count; i++) {
+            if (r.nextDouble() < malformedRate) malformed(sb, r, first + i);
+            else row(sb, r, first + i);
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Independent, well-spread stream seeds per block (SplitMix64 finalizer)
+    private static long mix(long seed, long block) {
+        long z = seed + (block + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static void row(StringBuilder sb, SplittableRandom r, long id) {
+        double ability = r.nextGaussian();
+        int income = (int) Math.min(1_000_000, Math.max(5_000, Math.round(Math.exp(11.08 + 0.75 * r.nextGaussian()) / 1000) * 1000));
+        boolean firstGen = r.nextDouble() < (income < 40_000 ? 0.45 : income < 100_000 ? 0.22 : 0.06);
+        boolean legacy = r.nextDouble() < (income > 150_000 ? 0.20 : 0.04);
+        double gpa = clamp(3.1 + 0.45 * ability + 0.25 * r.nextGaussian(), 0.0, 4.0);
+        int test = (int) clamp(Math.round((1100 + 170 * (0.7 * ability + 0.5 * r.nextGaussian())) / 10.0) * 10, 400, 1600);
+
+        sb.append(FIRST[r.nextInt(FIRST.length)]).append(' ').append(LAST[r.nextInt(LAST.length)]);
+        if (r.nextInt(4) == 0) sb.append(' ').append(id); // some unique names
+        sb.append(',').append(17 + Math.min(8, (int) Math.abs(r.nextGaussian() * 1.8))).append(',');
+        sb.append('"').append(PLACES[r.nextInt(PLACES.length)]).append('"').append(',');
+        sb.append(ethnicity(r)).append(',');
+        if (r.nextInt(20) == 0) {
+            sb.append("\"$");
+            grouped(sb, income);
+            sb.append('"');
+        } else {
+            sb.append(income);
+        }
+        sb.append(',').append(yesNo(r, legacy));
+        int local = r.nextInt(100);
+        sb.append(',').append(local < 2 ? "International" : yesNo(r, local < 32));
+        sb.append(',');
+        hundredths(sb, Math.round(gpa * 100));
+        sb.append(',').append(test);
+        sb.append(',');
+        rating(sb, r, 0.65 + 0.12 * (0.4 * ability + r.nextGaussian()));
+        sb.append(',');
+        rating(sb, r, 0.70 + 0.12 * (0.3 * ability + r.nextGaussian()));
+        sb.append(',');
+        rating(sb, r, 0.72 + 0.10 * (0.3 * ability + r.nextGaussian()));
+        sb.append(',').append(yesNo(r, firstGen));
+        sb.append(',').append(yesNo(r, r.nextDouble() < 0.08));
+        sb.append('\n');
+    }
+
+    // The kinds of damage the loader must skip (or, for short rows, ignore)
+    private static void malformed(StringBuilder sb, SplittableRandom r, long id) {
+        switch (r.nextInt(5)) {
+            case 0:  sb.append("Bad Age ").append(id).append(",x,\"Reno, NV\",White,40000,No,No,3.0,1000,0.5,0.5,0.5,No,No\n"); break;
+            case 1:  sb.append("Empty Income ").append(id).append(",19,\"Reno, NV\",White,,No,No,3.0,1000,0.5,0.5,0.5,No,No\n"); break;
+            case 2:  sb.append("Spaced Test ").append(id).append(",19,\"Reno, NV\",White,40000,No,No,3.0,1 000,0.5,0.5,0.5,No,No\n"); break;
+            case 3:  sb.append("Short Row ").append(id).append(",19,\"Reno, NV\",White\n"); break;
+            default: sb.append('\n'); // blank line
+        }
+    }
+
+    private static String ethnicity(SplittableRandom r) {
+        int p = r.nextInt(100);
+        int k = 0;
+        while (p >= ETHNICITY_CUM[k]) k++;
+        return ETHNICITIES[k];
+    }
+
+    // Mostly "Yes"/"No", occasionally in other cases
+    private static String yesNo(SplittableRandom r, boolean v) {
+        if (r.nextInt(50) != 0) return v ? "Yes" : "No";
+        return v ? (r.nextBoolean() ? "yes" : "YES") : (r.nextBoolean() ? "no" : "NO");
+    }
+
+    // A 0..1 rating, usually to one decimal as in the sample file, sometimes two
+    private static void rating(StringBuilder sb, SplittableRandom r, double x) {
+        x = clamp(x, 0.0, 1.0);
+        hundredths(sb, (r.nextInt(5) == 0) ? Math.round(x * 100) : Math.round(x * 10) * 10);
+    }
+
+    // v with thousands separators: 1,250,000
+    private static void grouped(StringBuilder sb, int v) {
+        if (v < 1000) {
+            sb.append(v);
+            return;
+        }
+        grouped(sb, v / 1000);
+        int rest = v % 1000;
+        sb.append(',').append((char) ('0' + rest / 100)).append((char) ('0' + rest / 10 % 10)).append((char) ('0' + rest % 10));
+    }
+
+    // cents / 100 as Double.toString would print it (3.0, 3.1, 3.12) without the cost
+    private static void hundredths(StringBuilder sb, long cents) {
+        sb.append(cents / 100).append('.');
+        int rem = (int) (cents % 100);
+        sb.append((char) ('0' + rem / 10));
+        if (rem % 10 != 0) sb.append((char) ('0' + rem % 10));
+    }
+
+    private static double clamp(double x, double lo, double hi) {
+        return Math.min(hi, Math.max(lo, x));
+    }
+
+    public static void main(String[] args) throws IOException {
+        long rows = -1, seed = 1;
+        String file = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        double malformed = 0.001;
+        for (String arg : args) {
+            try {
+                if (arg.startsWith("--seed=")) seed = Long.parseLong(arg.substring("--seed=".length()));
+                else if (arg.startsWith("--threads=")) threads = Math.max(1, Integer.parseInt(arg.substring("--threads=".length())));
+                else if (arg.startsWith("--malformed=")) malformed = Double.parseDouble(arg.substring("--malformed=".length()));
+                else if (rows < 0) rows = Long.parseLong(arg);
+                else if (file == null) file = arg;
+            } catch (NumberFormatException e) {
+                System.out.println("Bad argument: " + arg);
+                return;
+            }
+        }
+        if (rows < 0 || file == null) {
+            System.out.println("Usage: java ApplicantGenerator ROWS FILE [--seed=S] [--threads=N] [--malformed=RATE]");
+            return;
+        }
+
+        long start = System.nanoTime();
+        new ApplicantGenerator(seed).malformedRate(malformed).write(Paths.get(file), rows, threads);
+        double secs = (System.nanoTime() - start) / 1e9;
+        long bytes = Files.size(Paths.get(file));
+        System.out.printf("Wrote %d rows (%d MB) to %s in %.1f s (%.0f MB/s)%n",
+                rows, bytes >> 20, file, secs, bytes / 1048576.0 / secs);
+    }
+}
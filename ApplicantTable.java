@@ -0,0 +1,158 @@
+// ApplicantTable.java
+// Column-oriented applicant store: one primitive array per field, one
+// population-wide bitmap per Yes/No flag and dictionary-encoded
+// geography/ethnicity. Row i is applicant i.
+
+import java.util.Arrays;
+
+public class ApplicantTable {
+
+    private int size;
+    String[] name;
+    int[] age, test;
+    double[] income, gpa, extra, essay, rec;
+    final Bitmap legacyBits = new Bitmap(), localBits = new Bitmap();
+    final Bitmap firstGenBits = new Bitmap(), disabilityBits = new Bitmap();
+    int[] geography, ethnicity;   // codes into geographies / ethnicities
+    final Dictionary geographies = new Dictionary(), ethnicities = new Dictionary();
+    int malformed;                // rows the loader rejected (see Quarantine)
+
+    public ApplicantTable() {
+        this(1024);
+    }
+
+    public ApplicantTable(int capacity) {
+        allocate(Math.max(16, capacity));
+    }
+
+    private void allocate(int cap) {
+        name = Arrays.copyOf(name == null ? new String[0] : name, cap);
+        age = Arrays.copyOf(age == null ? new int[0] : age, cap);
+        test = Arrays.copyOf(test == null ? new int[0] : test, cap);
+        income = Arrays.copyOf(income == null ? new double[0] : income, cap);
+        gpa = Arrays.copyOf(gpa == null ? new double[0] : gpa, cap);
+        extra = Arrays.copyOf(extra == null ? new double[0] : extra, cap);
+        essay = Arrays.copyOf(essay == null ? new double[0] : essay, cap);
+        rec = Arrays.copyOf(rec == null ? new double[0] : rec, cap);
+        geography = Arrays.copyOf(geography == null ? new int[0] : geography, cap);
+        ethnicity = Arrays.copyOf(ethnicity == null ? new int[0] : ethnicity, cap);
+        legacyBits.ensureCapacity(cap);
+        localBits.ensureCapacity(cap);
+        firstGenBits.ensureCapacity(cap);
+        disabilityBits.ensureCapacity(cap);
+    }
+
+    public int size() { return size; }
+    public int malformed() { return malformed; }
+
+    public void add(String name, int age, String geography, String ethnicity, double income,
+                    boolean legacy, boolean local, double gpa, int test, double extra,
+                    double essay, double rec, boolean firstGen, boolean disability) {
+        add(name, age, geographies.encode(geography), ethnicities.encode(ethnicity), income,
+                legacy, local, gpa, test, extra, essay, rec, firstGen, disability);
+    }
+
+    private void add(String name, int age, int geography, int ethnicity, double income,
+                     boolean legacy, boolean local, double gpa, int test, double extra,
+                     double essay, double rec, boolean firstGen, boolean disability) {
+        if (size == this.name.length) allocate(size + (size >> 1));
+        int i = size++;
+        this.name[i] = name;
+        this.age[i] = age;
+        this.geography[i] = geography;
+        this.ethnicity[i] = ethnicity;
+        this.income[i] = income;
+        this.gpa[i] = gpa;
+        this.test[i] = test;
+        this.extra[i] = extra;
+        this.essay[i] = essay;
+        this.rec[i] = rec;
+        if (legacy)     legacyBits.set(i);
+        if (local)      localBits.set(i);
+        if (firstGen)   firstGenBits.set(i);
+        if (disability) disabilityBits.set(i);
+    }
+
+    public void add(Applicant a) {
+        add(a.name, a.age, a.geography, a.ethnicity, a.income, a.legacy, a.local,
+                a.gpa, a.test, a.extra, a.essay, a.rec, a.firstGen, a.disability);
+    }
+
+    // Appends a split CSV row of at least 14 fields. Returns false, leaving the
+    // table unchanged, when a numeric field is malformed (p.malformedField()
+    // tells which). Geography and ethnicity are encoded from the raw bytes,
+    // after the numbers parse, so malformed rows never add dictionary entries.
+    public boolean addRow(CsvParser p) {
+        int age = p.intValue(1);
+        double income = p.moneyValue(4);
+        boolean legacy = p.yes(5);
+        boolean local = p.yes(6);
+        double gpa = p.doubleValue(7);
+        int test = p.intValue(8);
+        double extra = p.doubleValue(9);
+        double essay = p.doubleValue(10);
+        double rec = p.doubleValue(11);
+        boolean firstGen = p.yes(12);
+        boolean disability = p.yes(13);
+        if (p.malformedField() >= 0) return false;
+
+        add(p.text(0), age, p.code(2, geographies), p.code(3, ethnicities), income,
+                legacy, local, gpa, test, extra, essay, rec, firstGen, disability);
+        return true;
+    }
+
+    public boolean legacy(int i)     { return legacyBits.get(i); }
+    public boolean local(int i)      { return localBits.get(i); }
+    public boolean firstGen(int i)   { return firstGenBits.get(i); }
+    public boolean disability(int i) { return disabilityBits.get(i); }
+
+    // Rows with income below the threshold, built in one pass over the column
+    public Bitmap lowIncome(double threshold) {
+        Bitmap out = new Bitmap(size);
+        for (int i = 0; i < size; i++) if (income[i] < threshold) out.set(i);
+        return out;
+    }
+
+    public String geography(int i) { return geographies.value(geography[i]); }
+    public String ethnicity(int i) { return ethnicities.value(ethnicity[i]); }
+
+    // Geography code -> state code, where the state is the part after the last
+    // comma ("Jackson, MS" -> "MS"); computed once per distinct geography
+    public int[] geographyToState(Dictionary states) {
+        return geographies.derive(g -> g.substring(g.lastIndexOf(',') + 1).trim(), states);
+    }
+
+    // Materializes row i as an object, for callers of the old per-object API
+    public Applicant get(int i) {
+        return new Applicant(name[i], age[i], geography(i), ethnicity(i), income[i],
+                legacy(i), local(i), gpa[i], test[i], extra[i], essay[i], rec[i],
+                firstGen(i), disability(i));
+    }
+
+    // Appends all rows of other, re-encoding its dictionary codes into this table's
+    public void addAll(ApplicantTable other) {
+        int[] geoMap = other.geographies.remapInto(geographies);
+        int[] ethMap = other.ethnicities.remapInto(ethnicities);
+
+        int n = other.size;
+        if (size + n > name.length) allocate(Math.max(size + n, size + (size >> 1)));
+        System.arraycopy(other.name, 0, name, size, n);
+        System.arraycopy(other.age, 0, age, size, n);
+        System.arraycopy(other.test, 0, test, size, n);
+        System.arraycopy(other.income, 0, income, size, n);
+        System.arraycopy(other.gpa, 0, gpa, size, n);
+        System.arraycopy(other.extra, 0, extra, size, n);
+        System.arraycopy(other.essay, 0, essay, size, n);
+        System.arraycopy(other.rec, 0, rec, size, n);
+        legacyBits.append(other.legacyBits, size, n);
+        localBits.append(other.localBits, size, n);
+        firstGenBits.append(other.firstGenBits, size, n);
+        disabilityBits.append(other.disabilityBits, size, n);
+        for (int k = 0; k < n; k++) {
+            geography[size + k] = geoMap[other.geography[k]];
+            ethnicity[size + k] = ethMap[other.ethnicity[k]];
+        }
+        size += n;
+        malformed += other.malformed;
+    }
+}
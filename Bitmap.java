@@ -0,0 +1,79 @@
+// Bitmap.java
+// Growable bit set over row ids, stored as 64-bit words so that counts and
+// intersections run a word at a time (AND + popcount).
+
+import java.util.Arrays;
+
+public class Bitmap {
+    long[] words;
+
+    public Bitmap() {
+        this(64);
+    }
+
+    public Bitmap(int bits) {
+        words = new long[Math.max(1, (bits + 63) >>> 6)];
+    }
+
+    // Makes bits [0, bits) addressable through words without growing later
+    public void ensureCapacity(int bits) {
+        int need = (bits + 63) >>> 6;
+        if (need > words.length) words = Arrays.copyOf(words, need);
+    }
+
+    public boolean get(int i) {
+        int w = i >>> 6;
+        return w < words.length && (words[w] & (1L << i)) != 0;
+    }
+
+    public void set(int i) {
+        int w = i >>> 6;
+        if (w >= words.length) words = Arrays.copyOf(words, Math.max(w + 1, words.length * 2));
+        words[w] |= 1L << i;
+    }
+
+    public void set(int i, boolean value) {
+        if (value) set(i);
+        else if ((i >>> 6) < words.length) words[i >>> 6] &= ~(1L << i);
+    }
+
+    // Number of set bits
+    public int cardinality() {
+        int n = 0;
+        for (long w : words) n += Long.bitCount(w);
+        return n;
+    }
+
+    // |this AND other| without materializing the intersection
+    public int andCardinality(Bitmap other) {
+        int n = 0;
+        for (int w = 0, len = Math.min(words.length, other.words.length); w < len; w++) {
+            n += Long.bitCount(words[w] & other.words[w]);
+        }
+        return n;
+    }
+
+    // New bitmap holding this AND other
+    public Bitmap and(Bitmap other) {
+        Bitmap out = new Bitmap(Math.min(words.length, other.words.length) << 6);
+        for (int w = 0; w < out.words.length; w++) out.words[w] = words[w] & other.words[w];
+        return out;
+    }
+
+    // Copies bits [0, n) of other to [offset, offset + n) of this; the target range must be clear
+    public void append(Bitmap other, int offset, int n) {
+        if (n <= 0) return;
+        int lastWord = (offset + n - 1) >>> 6;
+        if (lastWord >= words.length) words = Arrays.copyOf(words, Math.max(lastWord + 1, words.length * 2));
+        int shift = offset & 63, base = offset >>> 6;
+        int srcWords = Math.min(other.words.length, (n + 63) >>> 6);
+        for (int w = 0; w < srcWords; w++) {
+            long bits = other.words[w];
+            int remaining = n - (w << 6);
+            if (remaining < 64) bits &= (1L << remaining) - 1;
+            if (bits == 0) continue;
+            words[base + w] |= bits << shift;
+            if (shift != 0 && base + w + 1 < words.length) words[base + w + 1] |= bits >>> (64 - shift);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+// Bootstrap.java
+// Percentile bootstrap confidence intervals for each group's in-group minus
+// out-group admit rate, for both models. Every row is reduced to one byte
+// (its group bits plus its two decisions), so a resample is n random indexes
+// into that array counted into a small histogram; rows are never copied.
+// Resamples run in fixed-size batches, each with its own SplittableRandom
+// split from the seed, so results do not depend on the thread count.
+
+import java.util.*;
+import java.util.concurrent.*;
+
+public class Bootstrap {
+
+    // Group bits plus two decision bits must fit a byte
+    static final int MAX_GROUPS = 6;
+    // Resamples per task
+    static final int BATCH = 16;
+
+    // Point estimate and interval of (in-group rate - out-group rate)
+    public static class Interval {
+        public final String label;
+        public final double blindGap, blindLow, blindHigh;
+        public final double awareGap, awareLow, awareHigh;
+
+        Interval(String label, double blindGap, double blindLow, double blindHigh,
+                 double awareGap, double awareLow, double awareHigh) {
+            this.label = label;
+            this.blindGap = blindGap;
+            this.blindLow = blindLow;
+            this.blindHigh = blindHigh;
+            this.awareGap = awareGap;
+            this.awareLow = awareLow;
+            this.awareHigh = awareHigh;
+        }
+    }
+
+    private final Bitmap blindAdmitted, awareAdmitted;
+    private final int n;
+    private final List<String> labels;
+    private final List<Bitmap> members;
+
+    // groups: label -> member rows, in report order (e.g. Main.groups)
+    public Bootstrap(Bitmap blindAdmitted, Bitmap awareAdmitted, int n, Map<String, Bitmap> groups) {
+        if (groups.size() > MAX_GROUPS) throw new IllegalArgumentException("Bootstrap supports at most " + MAX_GROUPS + " groups");
+        this.blindAdmitted = blindAdmitted;
+        this.awareAdmitted = awareAdmitted;
+        this.n = n;
+        this.labels = new ArrayList<>(groups.keySet());
+        this.members = new ArrayList<>(groups.values());
+    }
+
+    // Intervals at the given confidence (e.g. 0.95), in registration order
+    public List<Interval> run(int resamples, double confidence, long seed, int threads) {
+        int groups = labels.size();
+        byte[] codes = codes();
+        double[] full = gaps(histogram(codes, null, null), groups);
+        if (n == 0 || resamples <= 0) return intervals(full, null, confidence);
+
+        // samples[k][r]: gap k (blind g, aware g, ...) of resample r
+        double[][] samples = new double[2 * groups][resamples];
+        int batches = (resamples + BATCH - 1) / BATCH;
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Callable<Void>> tasks = new ArrayList<>(batches);
+        for (int b = 0; b < batches; b++) {
+            SplittableRandom rng = root.split();
+            int from = b * BATCH, to = Math.min(resamples, from + BATCH);
+            tasks.add(() -> {
+                int[] hist = new int[1 << (groups + 2)];
+                for (int r = from; r < to; r++) {
+                    double[] g = gaps(histogram(codes, rng, hist), groups);
+                    for (int k = 0; k < g.length; k++) samples[k][r] = g[k];
+                }
+                return null;
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, batches)));
+        try {
+            for (Future<Void> f : pool.invokeAll(tasks)) f.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("Bootstrap failed", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        return intervals(full, samples, confidence);
+    }
+
+    // Bits 0..groups-1: membership; then blind admitted, aware admitted
+    private byte[] codes() {
+        int groups = members.size();
+        byte[] codes = new byte[n];
+        for (int i = 0; i < n; i++) {
+            int c = 0;
+            for (int g = 0; g < groups; g++) if (members.get(g).get(i)) c |= 1 << g;
+            if (blindAdmitted.get(i)) c |= 1 << groups;
+            if (awareAdmitted.get(i)) c |= 2 << groups;
+            codes[i] = (byte) c;
+        }
+        return codes;
+    }
+
+    // Counts per code over all rows (rng == null) or over n draws with replacement
+    private int[] histogram(byte[] codes, SplittableRandom rng, int[] hist) {
+        int groups = members.size();
+        if (hist == null) hist = new int[1 << (groups + 2)];
+        else Arrays.fill(hist, 0);
+        if (rng == null) {
+            for (byte c : codes) hist[c & 0xFF]++;
+        } else {
+            for (int i = 0; i < n; i++) hist[codes[rng.nextInt(n)] & 0xFF]++;
+        }
+        return hist;
+    }
+
+    // {blind gap g0, aware gap g0, blind gap g1, ...} from a code histogram
+    private static double[] gaps(int[] hist, int groups) {
+        double[] out = new double[2 * groups];
+        for (int g = 0; g < groups; g++) {
+            long in = 0, out0 = 0, blindIn = 0, blindOut = 0, awareIn = 0, awareOut = 0;
+            for (int c = 0; c < hist.length; c++) {
+                long count = hist[c];
+                if (count == 0) continue;
+                boolean member = (c & (1 << g)) != 0;
+                long b = ((c >>> groups) & 1) * count, a = ((c >>> (groups + 1)) & 1) * count;
+                if (member) { in += count; blindIn += b; awareIn += a; }
+                else        { out0 += count; blindOut += b; awareOut += a; }
+            }
+            out[2 * g]     = FairnessReport.rate(blindIn, in) - FairnessReport.rate(blindOut, out0);
+            out[2 * g + 1] = FairnessReport.rate(awareIn, in) - FairnessReport.rate(awareOut, out0);
+        }
+        return out;
+    }
+
+    private List<Interval> intervals(double[] full, double[][] samples, double confidence) {
+        List<Interval> out = new ArrayList<>(labels.size());
+        double tail = (1.0 - confidence) / 2;
+        for (int g = 0; g < labels.size(); g++) {
+            double[] blind = percentiles(samples == null ? null : samples[2 * g], tail, full[2 * g]);
+            double[] aware = percentiles(samples == null ? null : samples[2 * g + 1], tail, full[2 * g + 1]);
+            out.add(new Interval(labels.get(g), full[2 * g], blind[0], blind[1], full[2 * g + 1], aware[0], aware[1]));
+        }
+        return out;
+    }
+
+    // {low, high} percentiles of v; a degenerate interval when there are no resamples
+    private static double[] percentiles(double[] v, double tail, double point) {
+        if (v == null) return new double[] {point, point};
+        Arrays.sort(v);
+        int low = (int) Math.floor(tail * v.length);
+        int high = (int) Math.ceil((1.0 - tail) * v.length) - 1;
+        low = Math.max(0, Math.min(low, v.length - 1));
+        high = Math.max(low, Math.min(high, v.length - 1));
+        return new double[] {v[low], v[high]};
+    }
+}
@@ -0,0 +1,44 @@
+// Breakdown.java
+// Admission counts per dictionary code (e.g. per ethnicity or per state),
+// gathered in one pass over an int code column without touching strings.
+
+public class Breakdown {
+    private final Dictionary labels;
+    private final long[] total, blindAdmitted, awareAdmitted;
+
+    private Breakdown(Dictionary labels) {
+        this.labels = labels;
+        int g = labels.size();
+        total = new long[g];
+        blindAdmitted = new long[g];
+        awareAdmitted = new long[g];
+    }
+
+    // Counts rows [0, n) by codes[i], mapped through codeMap when it is not null
+    public static Breakdown of(int[] codes, int[] codeMap, Dictionary labels, int n, Bitmap blind, Bitmap aware) {
+        Breakdown b = new Breakdown(labels);
+        for (int i = 0; i < n; i++) {
+            int c = (codeMap == null) ? codes[i] : codeMap[codes[i]];
+            b.total[c]++;
+            if (blind.get(i)) b.blindAdmitted[c]++;
+            if (aware.get(i)) b.awareAdmitted[c]++;
+        }
+        return b;
+    }
+
+    public int groups()           { return total.length; }
+    public String label(int g)    { return labels.value(g); }
+    public long total(int g)      { return total[g]; }
+    public double blindRate(int g) { return total[g] == 0 ? 0.0 : (double) blindAdmitted[g] / total[g]; }
+    public double awareRate(int g) { return total[g] == 0 ? 0.0 : (double) awareAdmitted[g] / total[g]; }
+
+    public void print(String title) {
+        System.out.printf("%n=== Breakdown by %s ===%n", title);
+        System.out.printf("%-20s | %8s | %11s | %11s%n", title, "N", "Blind admit", "Aware admit");
+        for (int g = 0; g < groups(); g++) {
+            if (total[g] == 0) continue;
+            System.out.printf("%-20s | %8d | %10.1f%% | %10.1f%%%n",
+                    label(g), total[g], blindRate(g) * 100, awareRate(g) * 100);
+        }
+    }
+}
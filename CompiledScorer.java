@@ -0,0 +1,151 @@
+// CompiledScorer.java
+// A scoring plan specialized to one WeightProfile (see ScorerCompiler).
+// Terms whose weight or bonus is zero are left out, and each remaining term
+// is one tight loop over a block of rows with its constants hoisted, so a
+// profile that uses two terms does two terms of work per row.
+
+import java.util.*;
+
+public class CompiledScorer {
+
+    // Rows per block: the accumulators stay in L1 between term loops. A
+    // multiple of 64, so a block's decisions fill whole bitmap words and no
+    // word is shared with the next block (ProfileEvaluator relies on this too).
+    static final int BLOCK = 1024;
+
+    private final WeightProfile profile;
+    private final WeightProfile.Term[] blindTerms, bonusTerms;
+    private final double[] blindWeights, bonuses;
+
+    CompiledScorer(WeightProfile profile) {
+        this.profile = profile;
+        List<WeightProfile.Term> blind = new ArrayList<>(), bonus = new ArrayList<>();
+        for (WeightProfile.Term term : WeightProfile.Term.values()) {
+            if (droppable(term, profile)) continue;
+            (term.isBonus() ? bonus : blind).add(term);
+        }
+        blindTerms = blind.toArray(new WeightProfile.Term[0]);
+        bonusTerms = bonus.toArray(new WeightProfile.Term[0]);
+        blindWeights = new double[blindTerms.length];
+        bonuses = new double[bonusTerms.length];
+        for (int k = 0; k < blindTerms.length; k++) blindWeights[k] = blindTerms[k].get(profile);
+        for (int k = 0; k < bonusTerms.length; k++) bonuses[k] = bonusTerms[k].get(profile);
+    }
+
+    // A zero term adds exactly +-0.0, which cannot change a score, unless its
+    // normalized feature can be NaN (a zero or NaN maximum)
+    private static boolean droppable(WeightProfile.Term term, WeightProfile p) {
+        if (term.get(p) != 0.0) return false;
+        if (term == WeightProfile.Term.GPA)  return p.maxGpa != 0.0 && !Double.isNaN(p.maxGpa);
+        if (term == WeightProfile.Term.TEST) return p.maxTest != 0.0 && !Double.isNaN(p.maxTest);
+        return true;
+    }
+
+    public WeightProfile profile() { return profile; }
+
+    // Blind and aware scores and decisions for every row; identical to
+    // Admissions.score(t, cutoff, profile())
+    public Scores score(ApplicantTable t, double cutoff) {
+        int n = t.size();
+        Scores s = new Scores(n, cutoff, profile);
+        double[] acc = new double[BLOCK];
+        for (int base = 0; base < n; base += BLOCK) {
+            int len = Math.min(BLOCK, n - base);
+            PipelineEvents.ScoringBatch event = new PipelineEvents.ScoringBatch();
+            event.begin();
+            scoreBlock(t, base, len, acc, s);
+            if (event.shouldCommit()) {
+                event.firstRow = base;
+                event.rows = len;
+                event.cutoff = cutoff;
+                event.profile = profile.name;
+                event.compiled = true;
+                event.commit();
+            }
+        }
+        return s;
+    }
+
+    // Rows [base, base + len). Terms are added in formula order, so every sum
+    // is formed exactly as in Admissions.scoreBatch.
+    private void scoreBlock(ApplicantTable t, int base, int len, double[] acc, Scores s) {
+        if (blindTerms.length == 0) Arrays.fill(acc, 0, len, 0.0);
+        for (int k = 0; k < blindTerms.length; k++) {
+            addBlind(t, blindTerms[k], blindWeights[k], k == 0, base, len, acc);
+        }
+
+        final double[] blindOut = s.blind, awareOut = s.aware;
+        for (int i = 0; i < len; i++) {
+            double blind = Admissions.clampFast(acc[i]);
+            blindOut[base + i] = blind;
+            acc[i] = blind;
+        }
+        for (int k = 0; k < bonusTerms.length; k++) {
+            addBonus(t, bonusTerms[k], bonuses[k], base, len, acc);
+        }
+        for (int i = 0; i < len; i++) awareOut[base + i] = Admissions.clampFast(acc[i]);
+
+        final double cutoff = s.cutoff;
+        final long[] blindAdm = s.blindAdmitted.words, awareAdm = s.awareAdmitted.words;
+        for (int i = 0; i < len; i++) {
+            int row = base + i;
+            long bit = 1L << row;
+            blindAdm[row >>> 6] |= (blindOut[row] >= cutoff) ? bit : 0L;
+            awareAdm[row >>> 6] |= (awareOut[row] >= cutoff) ? bit : 0L;
+        }
+    }
+
+    // acc += normalized feature * w; the first term assigns (0.0 + x only
+    // differs from x in the sign of a zero, which the final clamp removes)
+    private void addBlind(ApplicantTable t, WeightProfile.Term term, double w, boolean first,
+                          int base, int len, double[] acc) {
+        switch (term) {
+            case GPA: {
+                final double[] gpa = t.gpa;
+                final double max = profile.maxGpa;
+                if (first) for (int i = 0; i < len; i++) acc[i] = Admissions.clampFast(Admissions.finiteOr0(gpa[base + i]) / max) * w;
+                else       for (int i = 0; i < len; i++) acc[i] += Admissions.clampFast(Admissions.finiteOr0(gpa[base + i]) / max) * w;
+                break;
+            }
+            case TEST: {
+                final int[] test = t.test;
+                final double max = profile.maxTest;
+                if (first) for (int i = 0; i < len; i++) acc[i] = Admissions.clampFast(test[base + i] / max) * w;
+                else       for (int i = 0; i < len; i++) acc[i] += Admissions.clampFast(test[base + i] / max) * w;
+                break;
+            }
+            default: {
+                final double[] col = (term == WeightProfile.Term.EXTRA) ? t.extra
+                                   : (term == WeightProfile.Term.ESSAY) ? t.essay : t.rec;
+                if (first) for (int i = 0; i < len; i++) acc[i] = Admissions.clampFast(Admissions.finiteOr0(col[base + i])) * w;
+                else       for (int i = 0; i < len; i++) acc[i] += Admissions.clampFast(Admissions.finiteOr0(col[base + i])) * w;
+            }
+        }
+    }
+
+    private void addBonus(ApplicantTable t, WeightProfile.Term term, double b, int base, int len, double[] acc) {
+        if (term == WeightProfile.Term.LOW_INCOME) {
+            final double[] income = t.income;
+            final double low = profile.lowIncomeThreshold;
+            for (int i = 0; i < len; i++) acc[i] += (income[base + i] < low) ? b : 0.0;
+            return;
+        }
+        final long[] words = (term == WeightProfile.Term.FIRST_GEN) ? t.firstGenBits.words
+                           : (term == WeightProfile.Term.DISABILITY) ? t.disabilityBits.words
+                           : (term == WeightProfile.Term.LEGACY) ? t.legacyBits.words : t.localBits.words;
+        for (int i = 0; i < len; i++) {
+            int row = base + i;
+            acc[i] += (((words[row >>> 6] >>> row) & 1L) != 0) ? b : 0.0;
+        }
+    }
+
+    // e.g. "0.45*GPA + 0.3*TEST | +0.05 LOW_INCOME"
+    @Override
+    public String toString() {
+        StringJoiner blind = new StringJoiner(" + ");
+        for (int k = 0; k < blindTerms.length; k++) blind.add(blindWeights[k] + "*" + blindTerms[k]);
+        StringBuilder sb = new StringBuilder(blindTerms.length == 0 ? "0" : blind.toString());
+        for (int k = 0; k < bonusTerms.length; k++) sb.append(k == 0 ? " | " : " ").append(bonuses[k] >= 0 ? "+" : "").append(bonuses[k]).append(' ').append(bonusTerms[k]);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,225 @@
+// CsvParser.java
+// Byte-level CSV row parser: records field offsets and parses numbers,
+// Yes/No flags and dollar amounts in place, without intermediate Strings.
+// Numbers are parsed by validating intValue/doubleValue/moneyValue, which
+// note the first bad field in malformedField() instead of throwing, so a
+// malformed row costs no exception.
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class CsvParser {
+
+    // Exact powers of ten for the fast double path (10^22 is the largest exact double)
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private byte[] buf = new byte[256];      // current row with quotes removed
+    private byte[] scratch = new byte[64];   // money fields with '$' and ',' removed
+    private int[] start = new int[16];
+    private int[] end = new int[16];
+    private int count;
+    private boolean failed;          // the last number parse did not succeed
+    private int malformed = -1;      // first field a validating parse rejected since split()
+
+    // Splits line[off, off+len) on commas/tabs outside quotes.
+    // Quotes are dropped and fields trimmed, matching the old parseCSVLine.
+    public int split(byte[] line, int off, int len) {
+        if (buf.length < len) buf = new byte[Math.max(len, buf.length * 2)];
+        count = 0;
+        malformed = -1;
+        boolean inQuotes = false;
+        int w = 0, fieldStart = 0;
+
+        for (int i = off, stop = off + len; i < stop; i++) {
+            byte c = line[i];
+            if (c == '"') inQuotes = !inQuotes;
+            else if ((c == ',' || c == '\t') && !inQuotes) {
+                addField(fieldStart, w);
+                fieldStart = w;
+            } else {
+                buf[w++] = c;
+            }
+        }
+        addField(fieldStart, w);
+        return count;
+    }
+
+    private void addField(int s, int e) {
+        while (s < e && isSpace(buf[s])) s++;
+        while (e > s && isSpace(buf[e - 1])) e--;
+        if (count == start.length) {
+            start = Arrays.copyOf(start, count * 2);
+            end = Arrays.copyOf(end, count * 2);
+        }
+        start[count] = s;
+        end[count] = e;
+        count++;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    public int fieldCount() { return count; }
+
+    public String text(int i) {
+        return new String(buf, start[i], end[i] - start[i], StandardCharsets.UTF_8);
+    }
+
+    // Dictionary code of the field, looked up by its bytes
+    public int code(int i, Dictionary dict) {
+        return dict.encode(buf, start[i], end[i] - start[i]);
+    }
+
+    // Same as "Yes".equalsIgnoreCase(field)
+    public boolean yes(int i) {
+        int s = start[i];
+        if (end[i] - s != 3) return hasNonAscii(buf, s, end[i]) && text(i).equalsIgnoreCase("Yes");
+        return (buf[s] | 0x20) == 'y' && (buf[s + 1] | 0x20) == 'e' && (buf[s + 2] | 0x20) == 's';
+    }
+
+    // Integer.parseInt(field); a malformed field gives 0 and is noted in malformedField()
+    public int intValue(int i) {
+        int v = parseInt(i);
+        if (failed) reject(i);
+        return v;
+    }
+
+    // Double.parseDouble(field), validated the same way
+    public double doubleValue(int i) {
+        double v = parseDouble(buf, start[i], end[i]);
+        if (failed) reject(i);
+        return v;
+    }
+
+    // Double.parseDouble(field.replace("$", "").replace(",", "")), validated the same way
+    public double moneyValue(int i) {
+        double v = parseMoney(i);
+        if (failed) reject(i);
+        return v;
+    }
+
+    // First field rejected by a validating parse since split(), or -1
+    public int malformedField() { return malformed; }
+
+    private void reject(int i) {
+        if (malformed < 0) malformed = i;
+    }
+
+    private int fail() {
+        failed = true;
+        return 0;
+    }
+
+    private int parseInt(int i) {
+        int s = start[i], e = end[i];
+        failed = false;
+        if (hasNonAscii(buf, s, e)) { // non-ASCII digits
+            try {
+                return Integer.parseInt(text(i));
+            } catch (NumberFormatException ex) {
+                return fail();
+            }
+        }
+        boolean neg = false;
+        if (s < e && (buf[s] == '-' || buf[s] == '+')) neg = buf[s++] == '-';
+        if (s == e) return fail();
+        long v = 0;
+        for (; s < e; s++) {
+            int d = buf[s] - '0';
+            if (d < 0 || d > 9) return fail();
+            v = v * 10 + d;
+            if (v > 1L + Integer.MAX_VALUE) return fail();
+        }
+        if (neg) v = -v;
+        if (v > Integer.MAX_VALUE) return fail();
+        return (int) v;
+    }
+
+    private double parseMoney(int i) {
+        int s = start[i], e = end[i];
+        if (scratch.length < e - s) scratch = new byte[Math.max(e - s, scratch.length * 2)];
+        int n = 0;
+        for (int k = s; k < e; k++) {
+            byte c = buf[k];
+            if (c != '$' && c != ',') scratch[n++] = c;
+        }
+        int from = 0;
+        while (from < n && isSpace(scratch[from])) from++;
+        while (n > from && isSpace(scratch[n - 1])) n--;
+        return parseDouble(scratch, from, n);
+    }
+
+    // Decimal literals are parsed in place; anything the fast path cannot
+    // represent exactly is handed to Double.parseDouble. Sets failed.
+    private double parseDouble(byte[] b, int s, int e) {
+        int p = s;
+        failed = false;
+        boolean neg = false;
+        if (p < e && (b[p] == '-' || b[p] == '+')) neg = b[p++] == '-';
+        if (p == e) return fail();
+
+        if (b[p] == 'N' || b[p] == 'I' || (b[p] == '0' && p + 1 < e && (b[p + 1] | 0x20) == 'x')) {
+            try {
+                return Double.parseDouble(ascii(b, s, e)); // NaN, Infinity, hex literals
+            } catch (NumberFormatException ex) {
+                return fail();
+            }
+        }
+
+        long mant = 0;
+        int digits = 0, sig = 0, exp10 = 0;
+        boolean dot = false;
+        for (; p < e; p++) {
+            byte c = b[p];
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (sig > 0 || c != '0') {
+                    if (sig < 19) mant = mant * 10 + (c - '0');
+                    else exp10++; // precision beyond a long; slow path will redo it
+                    sig++;
+                }
+                if (dot) exp10--;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) return fail();
+
+        if (p < e && (b[p] == 'e' || b[p] == 'E')) {
+            p++;
+            boolean expNeg = false;
+            if (p < e && (b[p] == '-' || b[p] == '+')) expNeg = b[p++] == '-';
+            int expDigits = 0, x = 0;
+            for (; p < e && b[p] >= '0' && b[p] <= '9'; p++, expDigits++) {
+                if (x < 100000) x = x * 10 + (b[p] - '0');
+            }
+            if (expDigits == 0) return fail();
+            exp10 += expNeg ? -x : x;
+        }
+        if (p < e && (b[p] | 0x20) != 'f' && (b[p] | 0x20) != 'd') return fail();
+        if (p < e) p++; // float/double suffix
+        if (p != e) return fail();
+
+        if (sig > 15 || exp10 < -22 || exp10 > 22) {
+            return Double.parseDouble(ascii(b, s, e));
+        }
+        double v = (double) mant;
+        v = exp10 < 0 ? v / POW10[-exp10] : v * POW10[exp10];
+        return neg ? -v : v;
+    }
+
+    private static boolean hasNonAscii(byte[] b, int s, int e) {
+        for (int k = s; k < e; k++) if (b[k] < 0) return true;
+        return false;
+    }
+
+    private static String ascii(byte[] b, int s, int e) {
+        return new String(b, s, e - s, StandardCharsets.ISO_8859_1);
+    }
+}
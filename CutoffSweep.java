@@ -0,0 +1,123 @@
+// CutoffSweep.java
+// Admit counts, group admit rates and blind-vs-aware flips for many cutoffs.
+// Scores are sorted once (overall, per group, and min(blind, aware) for the
+// rows both models admit); each cutoff is then a few binary searches.
+
+import java.math.BigDecimal;
+import java.util.*;
+
+public class CutoffSweep {
+
+    // Results at one cutoff
+    public static class Point extends AdmitCounts {
+        public final double cutoff;
+
+        Point(double cutoff, int groups) {
+            super(groups);
+            this.cutoff = cutoff;
+        }
+    }
+
+    private final double[] blindScores, awareScores;
+    private final List<Bitmap> members;
+
+    // Ascending, NaN-free (a NaN score is never admitted); built on first run
+    private double[] blind, aware, both;
+    private double[][] groupBlind, groupAware;
+
+    // groups: label -> member rows, e.g. Main.groups
+    public CutoffSweep(double[] blindScores, double[] awareScores, Map<String, Bitmap> groups) {
+        this.blindScores = blindScores;
+        this.awareScores = awareScores;
+        this.members = new ArrayList<>(groups.values());
+    }
+
+    public int population()            { return blindScores.length; }
+
+    private void prepare() {
+        if (blind != null) return;
+        int n = blindScores.length;
+        double[] min = new double[n];
+        for (int i = 0; i < n; i++) min[i] = Math.min(blindScores[i], awareScores[i]);
+        blind = sorted(blindScores, null);
+        aware = sorted(awareScores, null);
+        both = sorted(min, null);
+
+        int g = members.size();
+        groupBlind = new double[g][];
+        groupAware = new double[g][];
+        for (int k = 0; k < g; k++) {
+            groupBlind[k] = sorted(blindScores, members.get(k));
+            groupAware[k] = sorted(awareScores, members.get(k));
+        }
+    }
+
+    private static double[] sorted(double[] scores, Bitmap filter) {
+        double[] out = new double[scores.length];
+        int k = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (Double.isNaN(scores[i]) || (filter != null && !filter.get(i))) continue;
+            out[k++] = scores[i];
+        }
+        out = Arrays.copyOf(out, k);
+        Arrays.sort(out);
+        return out;
+    }
+
+    // Number of values >= cutoff in an ascending array
+    private static long atLeast(double[] asc, double cutoff) {
+        int lo = 0, hi = asc.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (asc[mid] < cutoff) lo = mid + 1;
+            else hi = mid;
+        }
+        return asc.length - lo;
+    }
+
+    public Point at(double cutoff) {
+        prepare();
+        Point pt = new Point(cutoff, members.size());
+        for (int k = 0; k < members.size(); k++) {
+            pt.groupBlindIn[k] = atLeast(groupBlind[k], cutoff);
+            pt.groupAwareIn[k] = atLeast(groupAware[k], cutoff);
+        }
+        long admittedByBoth = atLeast(both, cutoff);
+        pt.blindAdmits = atLeast(blind, cutoff);
+        pt.awareAdmits = atLeast(aware, cutoff);
+        pt.flipsUp = pt.awareAdmits - admittedByBoth;
+        pt.flipsDown = pt.blindAdmits - admittedByBoth;
+        return pt;
+    }
+
+    public List<Point> run(double[] cutoffs) {
+        List<Point> out = new ArrayList<>(cutoffs.length);
+        for (double c : cutoffs) out.add(at(c));
+        return out;
+    }
+
+    // Every distinct blind or aware score, ascending: the cutoffs where any count changes
+    public double[] distinctCutoffs() {
+        prepare();
+        double[] all = new double[blind.length + aware.length];
+        System.arraycopy(blind, 0, all, 0, blind.length);
+        System.arraycopy(aware, 0, all, blind.length, aware.length);
+        Arrays.sort(all);
+        int k = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (k == 0 || all[i] != all[k - 1]) all[k++] = all[i];
+        }
+        return Arrays.copyOf(all, k);
+    }
+
+    // from, from + step, ..., up to `to`, computed in decimal so 0.82 is exactly Double.parseDouble("0.82")
+    public static double[] grid(String from, String to, String step) {
+        BigDecimal a = new BigDecimal(from), b = new BigDecimal(to), s = new BigDecimal(step);
+        if (s.signum() <= 0) throw new IllegalArgumentException("Sweep step must be positive: " + step);
+        List<Double> out = new ArrayList<>();
+        for (BigDecimal c = a; c.compareTo(b) <= 0; c = c.add(s)) out.add(c.doubleValue());
+        double[] cutoffs = new double[out.size()];
+        for (int i = 0; i < cutoffs.length; i++) cutoffs[i] = out.get(i);
+        return cutoffs;
+    }
+}
@@ -0,0 +1,79 @@
+// Dictionary.java
+// Maps distinct string values to small dense int codes (0, 1, 2, ...).
+// Lookups work on raw UTF-8 bytes, so ingestion only builds a String the
+// first time a value is seen.
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+public class Dictionary {
+    private final List<String> values = new ArrayList<>();
+    private byte[][] keys = new byte[16][];
+    private int[] hashes = new int[16];
+    private int[] slots = new int[32];   // code + 1, 0 = empty
+
+    public int size() { return values.size(); }
+
+    public String value(int code) { return values.get(code); }
+
+    public int encode(String value) {
+        byte[] b = value.getBytes(StandardCharsets.UTF_8);
+        return encode(b, 0, b.length);
+    }
+
+    // Code for b[off, off+len), adding the value if it is new
+    public int encode(byte[] b, int off, int len) {
+        int h = hash(b, off, len);
+        int mask = slots.length - 1;
+        for (int s = h & mask; ; s = (s + 1) & mask) {
+            int code = slots[s] - 1;
+            if (code < 0) return add(b, off, len, h, s);
+            if (hashes[code] == h && Arrays.equals(keys[code], 0, keys[code].length, b, off, off + len)) return code;
+        }
+    }
+
+    private int add(byte[] b, int off, int len, int h, int slot) {
+        int code = values.size();
+        if (code == keys.length) {
+            keys = Arrays.copyOf(keys, code * 2);
+            hashes = Arrays.copyOf(hashes, code * 2);
+        }
+        keys[code] = Arrays.copyOfRange(b, off, off + len);
+        hashes[code] = h;
+        values.add(new String(b, off, len, StandardCharsets.UTF_8));
+        slots[slot] = code + 1;
+        if (values.size() * 2 > slots.length) rehash();
+        return code;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int code = 0; code < values.size(); code++) {
+            int s = hashes[code] & mask;
+            while (slots[s] != 0) s = (s + 1) & mask;
+            slots[s] = code + 1;
+        }
+    }
+
+    private static int hash(byte[] b, int off, int len) {
+        int h = 0x811c9dc5;
+        for (int i = off, end = off + len; i < end; i++) h = (h ^ b[i]) * 0x01000193;
+        return h ^ (h >>> 16);
+    }
+
+    // For each code here, the code of another's entry with the same bytes (adding as needed)
+    public int[] remapInto(Dictionary other) {
+        int[] map = new int[values.size()];
+        for (int code = 0; code < map.length; code++) map[code] = other.encode(keys[code], 0, keys[code].length);
+        return map;
+    }
+
+    // For each code here, the code of f(value) in target; f runs once per distinct value
+    public int[] derive(UnaryOperator<String> f, Dictionary target) {
+        int[] map = new int[values.size()];
+        for (int code = 0; code < map.length; code++) map[code] = target.encode(f.apply(values.get(code)));
+        return map;
+    }
+}
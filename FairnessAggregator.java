@@ -0,0 +1,100 @@
+// FairnessAggregator.java
+// Computes in/out-group sizes and blind/aware admit counts for every
+// registered group in a single pass over the decision bitmaps. The pass can
+// be split across threads; each part keeps its own counters, merged at the end.
+
+import java.util.*;
+import java.util.concurrent.*;
+
+public class FairnessAggregator {
+    private final List<String> labels;
+    private final List<Bitmap> members;
+
+    // groups: label -> membership bitmap over row ids, in report order (e.g. Main.groups)
+    public FairnessAggregator(Map<String, Bitmap> groups) {
+        this.labels = new ArrayList<>(groups.keySet());
+        this.members = new ArrayList<>(groups.values());
+    }
+
+    public FairnessReport run(Bitmap blindAdmitted, Bitmap awareAdmitted, int n) {
+        return run(blindAdmitted, awareAdmitted, n, 1);
+    }
+
+    public FairnessReport run(Bitmap blindAdmitted, Bitmap awareAdmitted, int n, int threads) {
+        PipelineEvents.FairnessAggregation event = new PipelineEvents.FairnessAggregation();
+        event.begin();
+        int words = (n + 63) >>> 6;
+        int parts = Math.max(1, Math.min(threads, n / Admissions.MIN_ROWS_PER_THREAD));
+        long[] counts;
+
+        if (parts == 1) {
+            counts = count(blindAdmitted, awareAdmitted, 0, words);
+        } else {
+            ExecutorService pool = Executors.newFixedThreadPool(parts);
+            try {
+                List<Future<long[]>> partial = new ArrayList<>();
+                for (int p = 0; p < parts; p++) {
+                    int from = (int) ((long) words * p / parts), to = (int) ((long) words * (p + 1) / parts);
+                    partial.add(pool.submit(() -> count(blindAdmitted, awareAdmitted, from, to)));
+                }
+                counts = new long[3 * labels.size() + 2];
+                for (Future<long[]> f : partial) {
+                    long[] c = f.get();
+                    for (int k = 0; k < counts.length; k++) counts[k] += c[k];
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException("Fairness aggregation failed", e);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        int g = labels.size();
+        long blindTotal = counts[3 * g], awareTotal = counts[3 * g + 1];
+        List<FairnessReport.Group> groups = new ArrayList<>(g);
+        for (int k = 0; k < g; k++) {
+            FairnessReport.Group r = new FairnessReport.Group(labels.get(k));
+            r.in = counts[3 * k];
+            r.out = n - r.in;
+            r.blindIn = counts[3 * k + 1];
+            r.awareIn = counts[3 * k + 2];
+            r.blindOut = blindTotal - r.blindIn;
+            r.awareOut = awareTotal - r.awareIn;
+            groups.add(r);
+        }
+        if (event.shouldCommit()) {
+            event.rows = n;
+            event.groups = g;
+            event.threads = parts;
+            event.commit();
+        }
+        return new FairnessReport(n, groups);
+    }
+
+    // Counters for words [from, to): per group {in, blindIn, awareIn}, then blind and aware totals
+    private long[] count(Bitmap blindAdmitted, Bitmap awareAdmitted, int from, int to) {
+        int g = labels.size();
+        long[][] groupWords = new long[g][];
+        for (int k = 0; k < g; k++) groupWords[k] = members.get(k).words;
+        long[] blind = blindAdmitted.words, aware = awareAdmitted.words;
+        long[] c = new long[3 * g + 2];
+
+        for (int w = from; w < to; w++) {
+            long b = word(blind, w), a = word(aware, w);
+            c[3 * g]     += Long.bitCount(b);
+            c[3 * g + 1] += Long.bitCount(a);
+            for (int k = 0; k < g; k++) {
+                long m = word(groupWords[k], w);
+                if (m == 0) continue;
+                c[3 * k]     += Long.bitCount(m);
+                c[3 * k + 1] += Long.bitCount(m & b);
+                c[3 * k + 2] += Long.bitCount(m & a);
+            }
+        }
+        return c;
+    }
+
+    private static long word(long[] words, int w) {
+        return w < words.length ? words[w] : 0L;
+    }
+}
@@ -0,0 +1,140 @@
+// FairnessCube.java
+// Blind/aware admission counts for every combination of the five group flags
+// (low income, first-gen, disability, legacy, local) crossed with ethnicity
+// and geography codes. One scan fills compact counter arrays indexed by a
+// combined cell key; any roll-up is then a sum over cells, not a rescan.
+
+import java.util.*;
+import java.util.concurrent.*;
+
+public class FairnessCube {
+
+    // Flag bits of a cell key
+    public static final int LOW_INCOME = 1, FIRST_GEN = 2, DISABILITY = 4, LEGACY = 8, LOCAL = 16;
+    static final int FLAG_COMBOS = 32;
+    private static final String[] FLAG_NAMES = {"Low income", "First-gen", "Disability", "Legacy", "Local"};
+
+    // Dense counters above this many cells would cost more than they save
+    static final int MAX_CELLS = 1 << 24;
+
+    private final Dictionary ethnicities, geographies;
+    private final long[] total, blind, aware;
+
+    private FairnessCube(Dictionary ethnicities, Dictionary geographies) {
+        this.ethnicities = ethnicities;
+        this.geographies = geographies;
+        long cells = (long) FLAG_COMBOS * Math.max(1, ethnicities.size()) * Math.max(1, geographies.size());
+        if (cells > MAX_CELLS) {
+            throw new IllegalArgumentException("Fairness cube would need " + cells + " cells; use a coarser geography");
+        }
+        total = new long[(int) cells];
+        blind = new long[(int) cells];
+        aware = new long[(int) cells];
+    }
+
+    // Builds the cube over all rows of t. geoMap maps t's geography codes into
+    // geographies (e.g. from ApplicantTable.geographyToState); null keeps t's own codes.
+    public static FairnessCube build(ApplicantTable t, Scores s, double lowIncomeThreshold,
+                                     int[] geoMap, Dictionary geographies, int threads) {
+        FairnessCube cube = new FairnessCube(t.ethnicities, geoMap == null ? t.geographies : geographies);
+        int n = t.size();
+        int parts = Math.max(1, Math.min(threads, n / Admissions.MIN_ROWS_PER_THREAD));
+
+        if (parts == 1) {
+            cube.scan(t, s, lowIncomeThreshold, geoMap, 0, n, cube.total, cube.blind, cube.aware);
+            return cube;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(parts);
+        try {
+            List<Future<long[][]>> partial = new ArrayList<>();
+            for (int p = 0; p < parts; p++) {
+                int from = (int) ((long) n * p / parts), to = (int) ((long) n * (p + 1) / parts);
+                partial.add(pool.submit(() -> {
+                    long[][] c = new long[3][cube.total.length];
+                    cube.scan(t, s, lowIncomeThreshold, geoMap, from, to, c[0], c[1], c[2]);
+                    return c;
+                }));
+            }
+            for (Future<long[][]> f : partial) {
+                long[][] c = f.get();
+                for (int k = 0; k < cube.total.length; k++) {
+                    cube.total[k] += c[0][k];
+                    cube.blind[k] += c[1][k];
+                    cube.aware[k] += c[2][k];
+                }
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("Fairness cube aggregation failed", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        return cube;
+    }
+
+    private void scan(ApplicantTable t, Scores s, double lowIncomeThreshold, int[] geoMap,
+                      int from, int to, long[] total, long[] blind, long[] aware) {
+        final long[] fg = t.firstGenBits.words, dis = t.disabilityBits.words;
+        final long[] leg = t.legacyBits.words, loc = t.localBits.words;
+        final long[] bAdm = s.blindAdmitted.words, aAdm = s.awareAdmitted.words;
+        final double[] income = t.income;
+        final int[] eth = t.ethnicity, geo = t.geography;
+        final int geoCount = Math.max(1, geographies.size());
+
+        for (int i = from; i < to; i++) {
+            int w = i >>> 6, b = i & 63;
+            int mask = (income[i] < lowIncomeThreshold ? LOW_INCOME : 0)
+                    | (int) ((fg[w] >>> b) & 1) * FIRST_GEN
+                    | (int) ((dis[w] >>> b) & 1) * DISABILITY
+                    | (int) ((leg[w] >>> b) & 1) * LEGACY
+                    | (int) ((loc[w] >>> b) & 1) * LOCAL;
+            int g = (geoMap == null) ? geo[i] : geoMap[geo[i]];
+            int key = ((eth[i] * geoCount) + g) * FLAG_COMBOS + mask;
+            total[key]++;
+            blind[key] += (bAdm[w] >>> b) & 1;
+            aware[key] += (aAdm[w] >>> b) & 1;
+        }
+    }
+
+    public int cells()                 { return total.length; }
+    public int flags(int cell)         { return cell % FLAG_COMBOS; }
+    public int geography(int cell)     { return (cell / FLAG_COMBOS) % Math.max(1, geographies.size()); }
+    public int ethnicity(int cell)     { return cell / FLAG_COMBOS / Math.max(1, geographies.size()); }
+    public long total(int cell)        { return total[cell]; }
+    public double blindRate(int cell)  { return FairnessReport.rate(blind[cell], total[cell]); }
+    public double awareRate(int cell)  { return FairnessReport.rate(aware[cell], total[cell]); }
+
+    // Roll-up over cells: rows whose flags match `value` on the bits in `care`,
+    // with ethnicity/geography code as given (-1 = any). Returns {total, blind, aware}.
+    public long[] slice(int care, int value, int ethnicity, int geography) {
+        long[] sum = new long[3];
+        for (int cell = 0; cell < total.length; cell++) {
+            if (total[cell] == 0 || (flags(cell) & care) != (value & care)) continue;
+            if (ethnicity >= 0 && ethnicity(cell) != ethnicity) continue;
+            if (geography >= 0 && geography(cell) != geography) continue;
+            sum[0] += total[cell];
+            sum[1] += blind[cell];
+            sum[2] += aware[cell];
+        }
+        return sum;
+    }
+
+    public static String flagLabel(int flags) {
+        if (flags == 0) return "-";
+        StringJoiner j = new StringJoiner("+");
+        for (int bit = 0; bit < FLAG_NAMES.length; bit++) if ((flags & (1 << bit)) != 0) j.add(FLAG_NAMES[bit]);
+        return j.toString();
+    }
+
+    // Non-empty cells, one line each
+    public void print() {
+        System.out.printf("%n=== Fairness cube (flags x ethnicity x geography) ===%n");
+        System.out.printf("%-40s | %-15s | %-10s | %8s | %6s | %6s%n", "Flags", "Ethnicity", "Geography", "N", "Blind", "Aware");
+        for (int cell = 0; cell < total.length; cell++) {
+            if (total[cell] == 0) continue;
+            System.out.printf("%-40s | %-15s | %-10s | %8d | %5.1f%% | %5.1f%%%n",
+                    flagLabel(flags(cell)), ethnicities.value(ethnicity(cell)), geographies.value(geography(cell)),
+                    total[cell], blindRate(cell) * 100, awareRate(cell) * 100);
+        }
+    }
+}
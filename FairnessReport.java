@@ -0,0 +1,41 @@
+// FairnessReport.java
+// Admission counts for each registered group versus everyone else, as
+// produced by FairnessAggregator.
+
+import java.util.*;
+
+public class FairnessReport {
+
+    // Counts for one group; "out" is the rest of the population
+    public static class Group {
+        final String label;
+        long in, out;
+        long blindIn, blindOut, awareIn, awareOut;
+
+        Group(String label) { this.label = label; }
+
+        public String label()      { return label; }
+        public long inCount()      { return in; }
+        public long outCount()     { return out; }
+        public double blindIn()    { return rate(blindIn, in); }
+        public double blindOut()   { return rate(blindOut, out); }
+        public double awareIn()    { return rate(awareIn, in); }
+        public double awareOut()   { return rate(awareOut, out); }
+    }
+
+    final long population;
+    final List<Group> groups;
+
+    FairnessReport(long population, List<Group> groups) {
+        this.population = population;
+        this.groups = groups;
+    }
+
+    public long population()     { return population; }
+    public List<Group> groups()  { return Collections.unmodifiableList(groups); }
+
+    static double rate(long count, long total) {
+        if (total == 0) return 0.0;
+        return (double) count / total;
+    }
+}
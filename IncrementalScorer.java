@@ -0,0 +1,192 @@
+// IncrementalScorer.java
+// What-if rescoring for one table: keeps the normalized features, both
+// scores, the decisions and both rankings, and when one weight or bonus
+// changes touches only the rows that term can move, then repairs the
+// ranking by sorting those rows alone and merging them back into the
+// unchanged ones. Results always equal a full rescore (EquivalenceCheck
+// verifies this).
+// Only bonus changes are cheap: a bonus moves just the rows in its group.
+// A blind weight moves every row whose feature is nonzero, which is nearly
+// every row, so its repair is a full sort of both orders and costs about
+// as much as a full rescore (200k rows: ~60 ms against ~70 ms, where a
+// bonus takes 3-9 ms). The old order does not help that sort either; after
+// a small weight step its runs average about two rows.
+
+public class IncrementalScorer {
+
+    private final ApplicantTable table;
+    private WeightProfile profile;
+    private double cutoff;
+
+    // Normalized GPA, test, extra, essay, rec, indexed by Term ordinal
+    private final double[][] norm = new double[5][];
+    private double[] blind, aware;
+    private Bitmap blindAdmitted, awareAdmitted;
+    private int[] blindOrder, awareOrder;
+
+    // Scratch for a repair, reused across changes
+    private final int[] rows, keep, moved;
+    private final Bitmap mark;
+
+    public IncrementalScorer(ApplicantTable table, WeightProfile profile, double cutoff) {
+        this.table = table;
+        int n = table.size();
+        rows = new int[n];
+        keep = new int[n];
+        moved = new int[n];
+        mark = new Bitmap(n);
+        rescoreAll(profile, cutoff);
+    }
+
+    private void rescoreAll(WeightProfile p, double c) {
+        profile = p;
+        cutoff = c;
+        Scores s = ScorerCompiler.compile(p).score(table, c);
+        blind = s.blind;
+        aware = s.aware;
+        blindAdmitted = s.blindAdmitted;
+        awareAdmitted = s.awareAdmitted;
+        blindOrder = Ranking.order(blind);
+        awareOrder = Ranking.order(aware);
+
+        int n = table.size();
+        for (int f = 0; f < norm.length; f++) if (norm[f] == null) norm[f] = new double[n];
+        for (int i = 0; i < n; i++) {
+            norm[0][i] = Admissions.clampFast(Admissions.finiteOr0(table.gpa[i]) / p.maxGpa);
+            norm[1][i] = Admissions.clampFast(table.test[i] / p.maxTest);
+            norm[2][i] = Admissions.clampFast(Admissions.finiteOr0(table.extra[i]));
+            norm[3][i] = Admissions.clampFast(Admissions.finiteOr0(table.essay[i]));
+            norm[4][i] = Admissions.clampFast(Admissions.finiteOr0(table.rec[i]));
+        }
+    }
+
+    public WeightProfile profile() { return profile; }
+    public double cutoff()         { return cutoff; }
+
+    // Live view of the current scores and decisions; valid until the next change
+    public Scores scores() {
+        return new Scores(cutoff, profile, blind, aware, blindAdmitted, awareAdmitted);
+    }
+
+    // Row ids best first (ties by row id, as Ranking.order); live, do not modify
+    public int[] blindOrder() { return blindOrder; }
+    public int[] awareOrder() { return awareOrder; }
+
+    // Sets one term and returns the number of rows rescored (nearly all of
+    // them for a blind weight)
+    public int set(WeightProfile.Term term, double value) {
+        double old = term.get(profile);
+        if (Double.compare(old, value) == 0) return 0;
+        profile = term.with(profile, value);
+
+        int m = affected(term, old, value);
+        if (!term.isBonus()) {
+            for (int k = 0; k < m; k++) {
+                int i = rows[k];
+                blind[i] = blindScore(i);
+                blindAdmitted.set(i, blind[i] >= cutoff);
+            }
+            repair(blindOrder, blind, m);
+        }
+        for (int k = 0; k < m; k++) {
+            int i = rows[k];
+            aware[i] = awareScore(i);
+            awareAdmitted.set(i, aware[i] >= cutoff);
+        }
+        repair(awareOrder, aware, m);
+        return m;
+    }
+
+    // Moves to p: term by term when only weights and bonuses differ, otherwise
+    // (new maxima or income threshold) a full rescore. Returns rows rescored.
+    public int apply(WeightProfile p) {
+        if (Double.compare(p.maxGpa, profile.maxGpa) != 0 || Double.compare(p.maxTest, profile.maxTest) != 0
+                || Double.compare(p.lowIncomeThreshold, profile.lowIncomeThreshold) != 0) {
+            rescoreAll(p, cutoff);
+            return table.size();
+        }
+        int total = 0;
+        for (WeightProfile.Term term : WeightProfile.Term.values()) total += set(term, term.get(p));
+        profile = p;
+        return total;
+    }
+
+    // New decisions only; scores and rankings do not depend on the cutoff
+    public void setCutoff(double c) {
+        cutoff = c;
+        for (int i = 0; i < blind.length; i++) {
+            blindAdmitted.set(i, blind[i] >= c);
+            awareAdmitted.set(i, aware[i] >= c);
+        }
+    }
+
+    // Rows whose score can change, ascending into rows; returns their count.
+    // A zero feature contributes 0 * w = 0 for any finite w.
+    private int affected(WeightProfile.Term term, double old, double value) {
+        int n = table.size(), m = 0;
+        switch (term) {
+            case LOW_INCOME: {
+                final double[] income = table.income;
+                final double low = profile.lowIncomeThreshold;
+                for (int i = 0; i < n; i++) if (income[i] < low) rows[m++] = i;
+                return m;
+            }
+            case FIRST_GEN:  return collect(table.firstGenBits, n);
+            case DISABILITY: return collect(table.disabilityBits, n);
+            case LEGACY:     return collect(table.legacyBits, n);
+            case LOCAL:      return collect(table.localBits, n);
+            default: {
+                boolean everyRow = !Double.isFinite(old) || !Double.isFinite(value);
+                final double[] f = norm[term.ordinal()];
+                for (int i = 0; i < n; i++) if (everyRow || f[i] != 0.0) rows[m++] = i;
+                return m;
+            }
+        }
+    }
+
+    private int collect(Bitmap group, int n) {
+        int m = 0;
+        long[] words = group.words;
+        for (int w = 0; w < words.length && (w << 6) < n; w++) {
+            for (long bits = words[w]; bits != 0; bits &= bits - 1) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (i < n) rows[m++] = i;
+            }
+        }
+        return m;
+    }
+
+    // Same arithmetic as Admissions.scoreBatch, from the stored features
+    private double blindScore(int i) {
+        double score = 0.0;
+        score += norm[0][i] * profile.wGpa;
+        score += norm[1][i] * profile.wTest;
+        score += norm[2][i] * profile.wExtra;
+        score += norm[3][i] * profile.wEssay;
+        score += norm[4][i] * profile.wRec;
+        return Admissions.clampFast(score);
+    }
+
+    private double awareScore(int i) {
+        WeightProfile p = profile;
+        double score = blind[i];
+        score += (table.income[i] < p.lowIncomeThreshold) ? p.bonusLowIncome  : 0.0;
+        score += table.firstGen(i)                        ? p.bonusFirstGen   : 0.0;
+        score += table.disability(i)                      ? p.bonusDisability : 0.0;
+        score += table.legacy(i)                          ? p.bonusLegacy     : 0.0;
+        score += table.local(i)                           ? p.bonusLocal      : 0.0;
+        return Admissions.clampFast(score);
+    }
+
+    // Only rows[0, m) changed; see Ranking.repair
+    private void repair(int[] order, double[] scores, int m) {
+        if (m == 0) return;
+        if (m == order.length) {
+            Ranking.sort(scores, order, m);
+            return;
+        }
+        for (int k = 0; k < m; k++) mark.set(rows[k]);
+        Ranking.repair(scores, order, mark, keep, moved);
+        for (int k = 0; k < m; k++) mark.set(rows[k], false);
+    }
+}
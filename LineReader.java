@@ -0,0 +1,83 @@
+// LineReader.java
+// Splits a byte stream into lines without decoding them to Strings.
+
+import java.io.*;
+import java.util.Arrays;
+
+public class LineReader {
+    private final InputStream in;
+    private byte[] buf = new byte[1 << 16];
+    private int pos, limit;          // unread bytes are buf[pos, limit)
+    private int lineStart, lineEnd;  // current line, terminator excluded
+    private boolean eof, skipLF;
+    private long lineNumber;
+
+    public LineReader(InputStream in) {
+        this.in = in;
+    }
+
+    // Advances to the next line; same terminators as BufferedReader.readLine (\n, \r, \r\n)
+    public boolean next() throws IOException {
+        int scan = pos;
+        while (true) {
+            if (skipLF) {
+                if (pos < limit) {
+                    if (buf[pos] == '\n') pos++;
+                    skipLF = false;
+                    if (scan < pos) scan = pos;
+                } else if (eof) {
+                    skipLF = false;
+                }
+            }
+
+            for (int i = scan; i < limit; i++) {
+                byte b = buf[i];
+                if (b == '\n' || b == '\r') {
+                    lineStart = pos;
+                    lineEnd = i;
+                    pos = i + 1;
+                    skipLF = (b == '\r');
+                    lineNumber++;
+                    return true;
+                }
+            }
+            scan = limit;
+
+            if (eof) {
+                if (pos < limit) {
+                    lineStart = pos;
+                    lineEnd = limit;
+                    pos = limit;
+                    lineNumber++;
+                    return true;
+                }
+                return false;
+            }
+
+            // keep the partial line and make room for more input
+            if (pos > 0) {
+                System.arraycopy(buf, pos, buf, 0, limit - pos);
+                scan -= pos;
+                limit -= pos;
+                pos = 0;
+            }
+            if (limit == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+            int n = in.read(buf, limit, buf.length - limit);
+            if (n < 0) eof = true;
+            else limit += n;
+        }
+    }
+
+    public byte[] buffer()    { return buf; }
+    public int start()        { return lineStart; }
+    public int length()       { return lineEnd - lineStart; }
+    public long lineNumber()  { return lineNumber; }
+
+    // True when the line is empty or whitespace only (String.trim semantics)
+    public boolean isBlank() {
+        for (int i = lineStart; i < lineEnd; i++) {
+            if (buf[i] < 0 || buf[i] > ' ') return false;
+        }
+        return true;
+    }
+}
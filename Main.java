@@ -3,162 +3,423 @@
 
 import java.io.*;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 public class Main {
 
-    // Parses a CSV line, accounting for quotes and commas
-    private static String[] parseCSVLine(String line) {
-        List<String> result = new ArrayList<>();
-        StringBuilder sb = new StringBuilder();
-        boolean inQuotes = false;
-
-        for (char c : line.toCharArray()) {
-            if (c == '"') inQuotes = !inQuotes;
-            else if ((c == ',' || c == '\t') && !inQuotes) {
-                result.add(sb.toString().trim());
-                sb.setLength(0);
-            } else {
-                sb.append(c);
-            }
-        }
-        result.add(sb.toString().trim());
-        return result.toArray(new String[0]);
+    // Reads the whole file into a columnar table, one row per valid applicant
+    public static ApplicantTable readTable(String filename) {
+        return readTable(filename, Quarantine.discard());
     }
 
-    // Reads all applicants from a CSV file
-    public static List<Applicant> readApplicants(String filename) {
-        List<Applicant> applicants = new ArrayList<>();
-
-        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            String line;
-            br.readLine(); // skip header
-
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] p = parseCSVLine(line);
-                if (p.length < 14) continue;
-
-                try {
-                    String name = p[0];
-                    int age = Integer.parseInt(p[1]);
-                    String geography = p[2];
-                    String ethnicity = p[3];
-                    double income = Double.parseDouble(p[4].replace("$", "").replace(",", ""));
-                    boolean legacy = p[5].equalsIgnoreCase("Yes");
-                    boolean local = p[6].equalsIgnoreCase("Yes");
-                    double gpa = Double.parseDouble(p[7]);
-                    int test = Integer.parseInt(p[8]);
-                    double extra = Double.parseDouble(p[9]);
-                    double essay = Double.parseDouble(p[10]);
-                    double rec = Double.parseDouble(p[11]);
-                    boolean firstGen = p[12].equalsIgnoreCase("Yes");
-                    boolean disability = p[13].equalsIgnoreCase("Yes");
-
-                    applicants.add(new Applicant(name, age, geography, ethnicity, income,
-                            legacy, local, gpa, test, extra, essay, rec, firstGen, disability));
-
-                } catch (Exception e) {
-                    System.out.println("Skipping malformed row: " + line);
-                }
+    // Same, sending rows that are too short or do not parse to the quarantine
+    public static ApplicantTable readTable(String filename, Quarantine quarantine) {
+        ApplicantTable table = new ApplicantTable();
+        PipelineEvents.IngestChunk event = new PipelineEvents.IngestChunk();
+        event.begin();
+
+        try (InputStream in = new FileInputStream(filename)) {
+            LineReader lines = new LineReader(in);
+            CsvParser p = new CsvParser();
+            lines.next(); // skip header
+
+            while (lines.next()) {
+                if (lines.isBlank()) continue;
+                Quarantine.Reason bad;
+                if (p.split(lines.buffer(), lines.start(), lines.length()) < 14) bad = Quarantine.Reason.TOO_FEW_FIELDS;
+                else if (!table.addRow(p)) bad = Quarantine.Reason.forField(p.malformedField());
+                else continue;
+                table.malformed++;
+                quarantine.reject(lines.lineNumber(), bad, lines.buffer(), lines.start(), lines.length());
             }
 
         } catch (IOException e) {
             System.out.println("Error reading file: " + e.getMessage());
         }
 
-        return applicants;
-    }
-
-    private static class Row {
-        Applicant a;
-        double blind, aware;
-        String blindDecision, awareDecision;
-        Row(Applicant a, double blind, double aware, String bd, String ad) {
-            this.a=a; this.blind=blind; this.aware=aware; this.blindDecision=bd; this.awareDecision=ad;
+        if (event.shouldCommit()) {
+            event.file = filename;
+            event.endOffset = new File(filename).length();
+            event.rows = table.size();
+            event.malformed = table.malformed();
+            event.commit();
         }
+        return table;
     }
 
     public static void main(String[] args) {
-        // Allow custom cutoff via args[0], default 0.82 as in the original
+        // Allow custom cutoff via the first plain argument, default 0.82 as in the original.
+        // --input=FILE reads applicants from FILE instead of applicants.csv
+        // (e.g. one written by ApplicantGenerator).
+        // --threads=N parses the (memory-mapped) file on N threads.
+        // --breakdown adds admit rates per ethnicity and per state.
+        // --cube adds admit rates for every flag combination x ethnicity x state.
+        // --top=K prints each model's top K instead of the full table;
+        // --top=admitted shortlists each model's admitted applicants.
+        // --sweep prints admit counts/rates as CSV for every distinct cutoff;
+        // --sweep=FROM:TO:STEP does the same on a decimal grid.
+        // --bootstrap adds 95% bootstrap intervals for each group's admit-rate gap (1000 resamples);
+        // --bootstrap=R sets the number of resamples, --seed=S the random seed.
+        // --format=text|csv|jsonl|summary picks the results table format (csv and jsonl print
+        // only the table; summary prints everything except the table).
+        // --profile=FILE.properties scores with that weight profile instead of the defaults.
+        // --profiles=A.properties,B.properties compares weight profiles (CSV) against the current one.
+        // --sensitivity offsets each weight and bonus by -0.05..+0.05 in steps of 0.01 and
+        // prints admit counts, group rates and rank churn as CSV; --sensitivity=FROM:TO:STEP sets the offsets.
+        // --quarantine=FILE writes rows that are too short or do not parse to FILE (CSV: line,reason,row);
+        // --max-errors=N aborts the run (exit status 2) once more than N rows have been rejected.
+        // --metrics prints time, throughput, allocation and malformed rows per stage to stderr at the end
+        // and publishes them over JMX while the run lasts.
         double cutoff = 0.82;
-        if (args.length >= 1) {
-            try { cutoff = Double.parseDouble(args[0]); } catch (Exception ignored) {}
+        int threads = 1;
+        boolean breakdown = false, cube = false;
+        int top = -1;             // -1: full table
+        boolean topAdmitted = false;
+        String sweep = null;      // null: no sweep, "": distinct cutoffs, else FROM:TO:STEP
+        String profileFile = null;
+        String profiles = null;
+        String sensitivity = null; // null: off, else FROM:TO:STEP
+        int bootstrap = 0;         // resamples, 0: off
+        long seed = 1;
+        String format = "text";
+        String input = "applicants.csv";
+        String quarantineFile = null;
+        long maxErrors = Long.MAX_VALUE;
+        boolean showMetrics = false;
+        boolean cutoffSeen = false;
+        for (String arg : args) {
+            if (arg.startsWith("--threads=")) {
+                try { threads = Math.max(1, Integer.parseInt(arg.substring("--threads=".length()))); } catch (Exception ignored) {}
+            } else if (arg.equals("--top=admitted")) {
+                topAdmitted = true;
+            } else if (arg.startsWith("--top=")) {
+                try { top = Math.max(0, Integer.parseInt(arg.substring("--top=".length()))); } catch (Exception ignored) {}
+            } else if (arg.equals("--breakdown")) {
+                breakdown = true;
+            } else if (arg.equals("--sweep")) {
+                sweep = "";
+            } else if (arg.startsWith("--sweep=")) {
+                sweep = arg.substring("--sweep=".length());
+            } else if (arg.startsWith("--profile=")) {
+                profileFile = arg.substring("--profile=".length());
+            } else if (arg.startsWith("--profiles=")) {
+                profiles = arg.substring("--profiles=".length());
+            } else if (arg.equals("--sensitivity")) {
+                sensitivity = "-0.05:0.05:0.01";
+            } else if (arg.startsWith("--sensitivity=")) {
+                sensitivity = arg.substring("--sensitivity=".length());
+            } else if (arg.equals("--bootstrap")) {
+                bootstrap = 1000;
+            } else if (arg.startsWith("--bootstrap=")) {
+                try { bootstrap = Math.max(0, Integer.parseInt(arg.substring("--bootstrap=".length()))); } catch (Exception ignored) {}
+            } else if (arg.startsWith("--seed=")) {
+                try { seed = Long.parseLong(arg.substring("--seed=".length())); } catch (Exception ignored) {}
+            } else if (arg.startsWith("--quarantine=")) {
+                quarantineFile = arg.substring("--quarantine=".length());
+            } else if (arg.startsWith("--max-errors=")) {
+                try { maxErrors = Math.max(0, Long.parseLong(arg.substring("--max-errors=".length()))); } catch (Exception ignored) {}
+            } else if (arg.startsWith("--input=")) {
+                input = arg.substring("--input=".length());
+            } else if (arg.startsWith("--format=")) {
+                format = arg.substring("--format=".length());
+            } else if (arg.equals("--cube")) {
+                cube = true;
+            } else if (arg.equals("--metrics")) {
+                showMetrics = true;
+            } else if (!cutoffSeen) {
+                cutoffSeen = true;
+                try { cutoff = Double.parseDouble(arg); } catch (Exception ignored) {}
+            }
         }
 
-        List<Applicant> applicants = readApplicants("applicants.csv");
-        if (applicants.isEmpty()) {
-            System.out.println("No applicants found. Check CSV format or path.");
+        ReportWriter report;
+        try {
+            report = ReportWriter.forFormat(format, System.out);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
             return;
         }
 
-        // Compute scores and decisions
-        List<Row> rows = new ArrayList<>();
-        for (Applicant app : applicants) {
-            double blind = Admissions.blindScore(app);
-            double aware = Admissions.awareScore(app);
-            String blindDecision = (blind >= cutoff) ? "Admitted" : "Rejected";
-            String awareDecision = (aware >= cutoff) ? "Admitted" : "Rejected";
-            rows.add(new Row(app, blind, aware, blindDecision, awareDecision));
+        WeightProfile profile = Admissions.DEFAULT;
+        if (profileFile != null) {
+            try {
+                profile = WeightProfile.load(java.nio.file.Paths.get(profileFile), Admissions.DEFAULT);
+            } catch (IOException | IllegalArgumentException e) {
+                System.out.println("Error reading profile " + profileFile + ": " + e.getMessage());
+                return;
+            }
         }
 
-        // Rank by each model
-        List<Row> byBlind = new ArrayList<>(rows);
-        byBlind.sort((r1, r2) -> Double.compare(r2.blind, r1.blind));
-        List<Row> byAware = new ArrayList<>(rows);
-        byAware.sort((r1, r2) -> Double.compare(r2.aware, r1.aware));
-
-        // Map name -> rank for quick comparison
-        Map<String,Integer> rankBlind = new HashMap<>();
-        Map<String,Integer> rankAware = new HashMap<>();
-        for (int i=0;i<byBlind.size();i++) rankBlind.put(byBlind.get(i).a.name, i+1);
-        for (int i=0;i<byAware.size();i++) rankAware.put(byAware.get(i).a.name, i+1);
-
-        System.out.println("=== Admissions Results (cutoff = " + cutoff + ") ===");
-        System.out.printf("%-15s | %6s | %6s | %8s | %8s | %6s | %6s | %s%n",
-                "Name","Blind","Aware","B.Dec","A.Dec","BRank","ARank","ΔRank");
-        for (Row r : rows) {
-            int rb = rankBlind.get(r.a.name);
-            int ra = rankAware.get(r.a.name);
-            int dRank = rb - ra; // positive => improved in Aware
-            System.out.printf("%-15s | %6.2f | %6.2f | %8s | %8s | %6d | %6d | %+d%n",
-                    r.a.name, r.blind, r.aware, r.blindDecision, r.awareDecision, rb, ra, dRank);
+        Quarantine quarantine = Quarantine.discard(maxErrors);
+        if (quarantineFile != null) {
+            try {
+                quarantine = Quarantine.open(java.nio.file.Paths.get(quarantineFile), maxErrors);
+            } catch (IOException e) {
+                System.out.println("Error opening quarantine file " + quarantineFile + ": " + e.getMessage());
+                return;
+            }
         }
 
-        // Where decisions differ
-        System.out.println("\n=== Disagreement (Blind vs Aware) ===");
-        long flipsUp = rows.stream().filter(r -> r.blindDecision.equals("Rejected") && r.awareDecision.equals("Admitted")).count();
-        long flipsDown = rows.stream().filter(r -> r.blindDecision.equals("Admitted") && r.awareDecision.equals("Rejected")).count();
-        System.out.println("Rejected→Admitted (Aware uplift): " + flipsUp);
-        System.out.println("Admitted→Rejected (Aware downshift): " + flipsDown);
-
-        // Fairness summary: admission rate by groups
-        summarizeGroup(rows, cutoff, "Low income",   r -> r.a.income < Admissions.LOW_INCOME_THRESHOLD);
-        summarizeGroup(rows, cutoff, "First-gen",    r -> r.a.firstGen);
-        summarizeGroup(rows, cutoff, "Disability",   r -> r.a.disability);
-        summarizeGroup(rows, cutoff, "Legacy",       r -> r.a.legacy);
-        summarizeGroup(rows, cutoff, "Local",        r -> r.a.local);
+        PipelineMetrics metrics = new PipelineMetrics();
+        if (showMetrics) metrics.publish();
+        boolean aborted = false;
+        try {
+            ApplicantTable table;
+            try (PipelineMetrics.Span span = metrics.start("ingest"); Quarantine q = quarantine) {
+                table = (threads > 1) ? ParallelLoader.loadTable(input, threads, q) : readTable(input, q);
+                span.rows(table.size()).bytes(new File(input).length()).malformed(table.malformed());
+            } catch (Quarantine.BudgetExceeded e) {
+                // the quarantine is closed (and its file complete) by now
+                System.err.println(e.getMessage() + (quarantineFile != null ? " (see " + quarantineFile + ")" : ""));
+                aborted = true;
+                return;
+            }
+            printRejected(quarantine);
+            if (table.size() == 0) {
+                System.out.println("No applicants found. Check CSV format or path.");
+                return;
+            }
+            int n = table.size();
+            Map<String, Bitmap> groups = groups(table, profile);
+
+            if (profiles != null) {
+                try (PipelineMetrics.Span span = metrics.start("profiles")) {
+                    printProfiles(table, groups, profile, profiles, cutoff, threads);
+                    span.rows(n);
+                }
+                return;
+            }
+            if (sensitivity != null) {
+                try (PipelineMetrics.Span span = metrics.start("sensitivity")) {
+                    printSensitivity(table, groups, profile, sensitivity, cutoff, threads);
+                    span.rows(n);
+                }
+                return;
+            }
+
+            // Blind and aware scores and decisions in one fused pass
+            Scores scores;
+            try (PipelineMetrics.Span span = metrics.start("score")) {
+                scores = Admissions.score(table, cutoff, profile);
+                span.rows(n);
+            }
+            if (sweep != null) {
+                try (PipelineMetrics.Span span = metrics.start("sweep")) {
+                    printSweep(groups, scores, sweep);
+                    span.rows(n);
+                }
+                return;
+            }
+            if (topAdmitted || top >= 0) {
+                int[] blindList, awareList;
+                try (PipelineMetrics.Span span = metrics.start("rank")) {
+                    blindList = topAdmitted ? Ranking.admitted(scores.blind, scores.blindAdmitted) : Ranking.topK(scores.blind, top);
+                    awareList = topAdmitted ? Ranking.admitted(scores.aware, scores.awareAdmitted) : Ranking.topK(scores.aware, top);
+                    span.rows(n);
+                }
+                try (PipelineMetrics.Span span = metrics.start("output")) {
+                    System.out.println("=== Shortlist (cutoff = " + cutoff + ") ===");
+                    printShortlist(table, "Blind", scores.blind, blindList);
+                    printShortlist(table, "Aware", scores.aware, awareList);
+                    span.rows(blindList.length + awareList.length);
+                }
+            } else if (report.wantsRows()) {
+                // Rank by each model: rank arrays indexed by row id
+                int[] rankBlind, rankAware;
+                try (PipelineMetrics.Span span = metrics.start("rank")) {
+                    rankBlind = Ranking.ranks(scores.blind);
+                    rankAware = Ranking.ranks(scores.aware);
+                    span.rows(n);
+                }
+
+                try (PipelineMetrics.Span span = metrics.start("output")) {
+                    report.begin(cutoff);
+                    for (int i = 0; i < n; i++) {
+                        report.row(table.name[i], scores.blind(i), scores.aware(i),
+                                scores.blindAdmitted(i), scores.awareAdmitted(i), rankBlind[i], rankAware[i]);
+                    }
+                    report.flush();
+                    span.rows(n).bytes(report.bytesWritten());
+                }
+            }
+            if (!report.wantsSummaries()) return;
+
+            // Where decisions differ
+            System.out.println("\n=== Disagreement (Blind vs Aware) ===");
+            System.out.println("Rejected→Admitted (Aware uplift): " + scores.flipsUp());
+            System.out.println("Admitted→Rejected (Aware downshift): " + scores.flipsDown());
+
+            // Fairness summary: admission rate by groups
+            try (PipelineMetrics.Span span = metrics.start("fairness")) {
+                FairnessAggregator aggregator = new FairnessAggregator(groups);
+                FairnessReport fairness = aggregator.run(scores.blindAdmitted, scores.awareAdmitted, n, threads);
+                for (FairnessReport.Group g : fairness.groups()) printGroup(g);
+                span.rows(n);
+            }
+            if (bootstrap > 0) {
+                try (PipelineMetrics.Span span = metrics.start("bootstrap")) {
+                    Bootstrap boot = new Bootstrap(scores.blindAdmitted, scores.awareAdmitted, n, groups);
+                    printBootstrap(boot.run(bootstrap, 0.95, seed, threads), bootstrap);
+                    span.rows(n);
+                }
+            }
+
+            if (breakdown) {
+                try (PipelineMetrics.Span span = metrics.start("breakdown")) {
+                    Breakdown.of(table.ethnicity, null, table.ethnicities, n, scores.blindAdmitted, scores.awareAdmitted).print("Ethnicity");
+                    Dictionary states = new Dictionary();
+                    Breakdown.of(table.geography, table.geographyToState(states), states, n, scores.blindAdmitted, scores.awareAdmitted).print("State");
+                    span.rows(n);
+                }
+            }
+            if (cube) {
+                try (PipelineMetrics.Span span = metrics.start("cube")) {
+                    Dictionary states = new Dictionary();
+                    FairnessCube.build(table, scores, profile.lowIncomeThreshold,
+                            table.geographyToState(states), states, threads).print();
+                    span.rows(n);
+                }
+            }
+        } finally {
+            if (showMetrics) metrics.print(System.err); // stdout carries only the report
+            if (aborted) System.exit(2); // so scripts can tell an aborted load from a run
+        }
+    }
+
+    // One line for all rejected rows, e.g. "Skipped 7 malformed rows (bad gpa: 4, too few fields: 3)",
+    // on stderr so csv and jsonl output stays parseable
+    private static void printRejected(Quarantine quarantine) {
+        long total = quarantine.total();
+        if (total == 0) return;
+        StringBuilder sb = new StringBuilder("Skipped ").append(total).append(total == 1 ? " malformed row (" : " malformed rows (");
+        String sep = "";
+        for (Map.Entry<Quarantine.Reason, Long> e : quarantine.counts().entrySet()) {
+            sb.append(sep).append(e.getKey().label()).append(": ").append(e.getValue());
+            sep = ", ";
+        }
+        sb.append(')');
+        if (quarantine.file() != null) sb.append(", written to ").append(quarantine.file());
+        System.err.println(sb);
+    }
+
+    // The fairness groups reported by Main, in report order
+    static Map<String, Bitmap> groups(ApplicantTable table, WeightProfile profile) {
+        Map<String, Bitmap> groups = new LinkedHashMap<>();
+        groups.put("Low income", table.lowIncome(profile.lowIncomeThreshold));
+        groups.put("First-gen",  table.firstGenBits);
+        groups.put("Disability", table.disabilityBits);
+        groups.put("Legacy",     table.legacyBits);
+        groups.put("Local",      table.localBits);
+        return groups;
+    }
+
+    private static void printSweep(Map<String, Bitmap> groups, Scores scores, String spec) {
+        CutoffSweep sweep = new CutoffSweep(scores.blind, scores.aware, groups);
+
+        double[] cutoffs;
+        if (spec.isEmpty()) {
+            cutoffs = sweep.distinctCutoffs();
+        } else {
+            String[] p = spec.split(":");
+            if (p.length != 3) {
+                System.out.println("Sweep grid must be FROM:TO:STEP, got: " + spec);
+                return;
+            }
+            try {
+                cutoffs = CutoffSweep.grid(p[0], p[1], p[2]);
+            } catch (IllegalArgumentException e) { // also a NumberFormatException from a bad number
+                System.out.println("Sweep grid must be FROM:TO:STEP with decimal numbers and a positive step, got: " + spec);
+                return;
+            }
+        }
+
+        printAdmits("cutoff", "", groups, sweep.run(cutoffs), pt -> Double.toString(pt.cutoff), pt -> "");
+    }
+
+    private static void printProfiles(ApplicantTable table, Map<String, Bitmap> groups, WeightProfile current,
+                                      String files, double cutoff, int threads) {
+        List<WeightProfile> list = new ArrayList<>();
+        list.add(current);
+        for (String f : files.split(",")) {
+            if (f.isEmpty()) continue;
+            try {
+                list.add(WeightProfile.load(java.nio.file.Paths.get(f), current));
+            } catch (IOException | IllegalArgumentException e) {
+                System.out.println("Error reading profile " + f + ": " + e.getMessage());
+                return;
+            }
+        }
+
+        ProfileEvaluator eval = new ProfileEvaluator(table, groups);
+        printAdmits("profile", "", groups, eval.run(list, cutoff, threads), r -> r.profile.name(), r -> "");
     }
 
-    interface Pred { boolean test(Row r); }
+    private static void printSensitivity(ApplicantTable table, Map<String, Bitmap> groups, WeightProfile profile,
+                                         String spec, double cutoff, int threads) {
+        String[] p = spec.split(":");
+        if (p.length != 3) {
+            System.out.println("Sensitivity offsets must be FROM:TO:STEP, got: " + spec);
+            return;
+        }
+        double[] deltas;
+        try {
+            deltas = CutoffSweep.grid(p[0], p[1], p[2]);
+        } catch (IllegalArgumentException e) { // also a NumberFormatException from a bad number
+            System.out.println("Sensitivity offsets must be FROM:TO:STEP with decimal numbers and a positive step, got: " + spec);
+            return;
+        }
 
-    private static void summarizeGroup(List<Row> rows, double cutoff, String label, Pred pred) {
-        List<Row> in  = rows.stream().filter(pred::test).collect(Collectors.toList());
-        List<Row> out = rows.stream().filter(r -> !pred.test(r)).collect(Collectors.toList());
+        SensitivityAnalysis analysis = new SensitivityAnalysis(table, profile, cutoff, groups);
+        printAdmits("term,value,delta", ",blind_churn,aware_churn", groups,
+                analysis.run(Arrays.asList(WeightProfile.Term.values()), deltas, threads),
+                pt -> pt.term.key() + "," + pt.value + "," + pt.delta,
+                pt -> String.format(",%.4f,%.4f", pt.blindChurn, pt.awareChurn));
+    }
 
-        double blindIn  = rate(in,  r -> r.blind >= cutoff);
-        double blindOut = rate(out, r -> r.blind >= cutoff);
-        double awareIn  = rate(in,  r -> r.aware >= cutoff);
-        double awareOut = rate(out, r -> r.aware >= cutoff);
+    // CSV with one line per result: its key columns, admits and flips, any
+    // extra columns, then each group's blind and aware admit rate
+    private static <R extends AdmitCounts> void printAdmits(String keyHeader, String extraHeader, Map<String, Bitmap> groups,
+                                                            List<R> results, Function<R, String> key, Function<R, String> extra) {
+        StringBuilder header = new StringBuilder(keyHeader).append(",blind_admits,aware_admits,flips_up,flips_down").append(extraHeader);
+        for (String label : groups.keySet()) header.append(',').append(label).append(" blind,").append(label).append(" aware");
+        System.out.println(header);
 
-        System.out.printf("%n=== Group: %s ===%n", label);
-        System.out.printf("Blind  admit rate | In-group: %.1f%%  vs  Out-group: %.1f%%%n", blindIn*100, blindOut*100);
-        System.out.printf("Aware  admit rate | In-group: %.1f%%  vs  Out-group: %.1f%%%n", awareIn*100, awareOut*100);
+        long[] sizes = new long[groups.size()];
+        int k = 0;
+        for (Bitmap members : groups.values()) sizes[k++] = members.cardinality();
+        for (R r : results) {
+            StringBuilder line = new StringBuilder(key.apply(r));
+            line.append(',').append(r.blindAdmits).append(',').append(r.awareAdmits)
+                .append(',').append(r.flipsUp).append(',').append(r.flipsDown)
+                .append(extra.apply(r));
+            for (int g = 0; g < sizes.length; g++) {
+                line.append(String.format(",%.4f,%.4f",
+                        FairnessReport.rate(r.groupBlindIn[g], sizes[g]), FairnessReport.rate(r.groupAwareIn[g], sizes[g])));
+            }
+            System.out.println(line);
+        }
+    }
+
+    private static void printShortlist(ApplicantTable table, String model, double[] scores, int[] best) {
+        System.out.printf("%n--- %s model: %d applicants ---%n", model, best.length);
+        System.out.printf("%6s | %-15s | %6s%n", "Rank", "Name", "Score");
+        for (int r = 0; r < best.length; r++) {
+            System.out.printf("%6d | %-15s | %6.2f%n", r + 1, table.name[best[r]], scores[best[r]]);
+        }
+    }
+
+    private static void printBootstrap(List<Bootstrap.Interval> intervals, int resamples) {
+        System.out.printf("%n=== Bootstrap 95%% CI: in-group minus out-group admit rate (%d resamples) ===%n", resamples);
+        for (Bootstrap.Interval iv : intervals) {
+            System.out.printf("%-10s | Blind: %+6.1f%% [%+6.1f%%, %+6.1f%%] | Aware: %+6.1f%% [%+6.1f%%, %+6.1f%%]%n", iv.label,
+                    iv.blindGap * 100, iv.blindLow * 100, iv.blindHigh * 100,
+                    iv.awareGap * 100, iv.awareLow * 100, iv.awareHigh * 100);
+        }
     }
 
-    private static double rate(List<Row> rows, java.util.function.Predicate<Row> p) {
-        if (rows.isEmpty()) return 0.0;
-        long cnt = rows.stream().filter(p).count();
-        return (double) cnt / rows.size();
+    private static void printGroup(FairnessReport.Group g) {
+        System.out.printf("%n=== Group: %s ===%n", g.label());
+        System.out.printf("Blind  admit rate | In-group: %.1f%%  vs  Out-group: %.1f%%%n", g.blindIn()*100, g.blindOut()*100);
+        System.out.printf("Aware  admit rate | In-group: %.1f%%  vs  Out-group: %.1f%%%n", g.awareIn()*100, g.awareOut()*100);
     }
 }
@@ -0,0 +1,200 @@
+// ParallelLoader.java
+// Memory-maps the applicants file, splits it into line-aligned chunks and
+// parses the chunks on several threads. Results keep the original row order.
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class ParallelLoader {
+
+    // Mapped regions must stay below 2 GB; smaller chunks also balance load better
+    private static final long MAX_CHUNK = 1L << 30;
+
+    // Parsed output of one chunk, in file order
+    private static class Chunk {
+        ApplicantTable table = new ApplicantTable();
+        long lines;                                   // lines in the chunk
+        List<Rejected> rejected = new ArrayList<>();
+        Quarantine.BudgetExceeded aborted;            // set when parsing stopped early
+    }
+
+    // A rejected row, held until the chunk's first line number is known
+    private static class Rejected {
+        final long line;                              // within the chunk, from 1
+        final Quarantine.Reason reason;
+        final byte[] row;                             // null when there is no side file
+
+        Rejected(long line, Quarantine.Reason reason, byte[] row) {
+            this.line = line;
+            this.reason = reason;
+            this.row = row;
+        }
+    }
+
+    // Same contract as Main.readTable, but parses on `threads` threads
+    public static ApplicantTable loadTable(String filename, int threads) {
+        return loadTable(filename, threads, Quarantine.discard());
+    }
+
+    // Rejected rows are charged against the budget as chunks find them, and
+    // reach the quarantine in file order, with file line numbers, as chunks merge.
+    // On an abort the quarantine gets the same first maxErrors+1 rows as Main.readTable.
+    public static ApplicantTable loadTable(String filename, int threads, Quarantine quarantine) {
+        ApplicantTable table = new ApplicantTable();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        boolean keepRows = quarantine.file() != null;
+
+        try (FileChannel ch = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long[] bounds = split(ch, Math.max(threads * 4L, ch.size() / MAX_CHUNK + 1));
+
+            List<Future<Chunk>> parts = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long from = bounds[i], to = bounds[i + 1];
+                boolean header = (i == 0);
+                parts.add(pool.submit(() -> parse(filename, ch, from, to, header, quarantine, keepRows)));
+            }
+
+            long linesBefore = 0, recorded = 0;
+            Quarantine.BudgetExceeded aborted = null;
+            for (int i = 0; i < parts.size(); i++) {
+                Chunk c = parts.get(i).get();
+                if (c.aborted != null && aborted == null) aborted = c.aborted;
+                if (aborted != null) {
+                    long left = quarantine.maxErrors() + 1 - recorded;
+                    // A chunk stopped by other chunks' rows may not have reached the
+                    // rows the sequential run would report: parse it again up to them
+                    if (c.aborted != null && c.rejected.size() < left) {
+                        c = parse(filename, ch, bounds[i], bounds[i + 1], i == 0, Quarantine.discard(left - 1), keepRows);
+                    }
+                }
+                for (Rejected r : c.rejected) {
+                    if (aborted != null && recorded > quarantine.maxErrors()) break;
+                    quarantine.record(linesBefore + r.line, r.reason, r.row, 0, r.row == null ? 0 : r.row.length);
+                    recorded++;
+                }
+                if (aborted != null && recorded > quarantine.maxErrors()) throw aborted;
+                table.addAll(c.table);
+                linesBefore += c.lines;
+            }
+            if (aborted != null) throw aborted;
+
+        } catch (IOException e) {
+            System.out.println("Error reading file: " + e.getMessage());
+        } catch (ExecutionException e) {
+            System.out.println("Error reading file: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return table;
+    }
+
+    // Chunk boundaries [b0=0, b1, ..., size]; every boundary is the start of a line.
+    // Rows never span lines (as with readLine), so quotes cannot cross a boundary.
+    static long[] split(FileChannel ch, long chunks) throws IOException {
+        long size = ch.size();
+        long step = Math.max(1, size / Math.max(1, chunks));
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer window = ByteBuffer.allocate(1 << 16);
+
+        for (long nominal = step; nominal < size; nominal += step) {
+            long prev = bounds.get(bounds.size() - 1);
+            if (nominal <= prev) continue;
+            long b = lineStartAtOrAfter(ch, nominal, size, window);
+            if (b > prev && b < size) bounds.add(b);
+        }
+        bounds.add(size);
+
+        long[] out = new long[bounds.size()];
+        for (int i = 0; i < out.length; i++) out[i] = bounds.get(i);
+        return out;
+    }
+
+    // Smallest q >= p where a line starts: after '\n', or after a '\r' not followed by '\n'
+    private static long lineStartAtOrAfter(FileChannel ch, long p, long size, ByteBuffer window) throws IOException {
+        long base = p - 1; // window covers bytes [base, base + filled)
+        window.clear();
+        int filled = 0;
+        for (long q = p; q < size; q++) {
+            if (q + 1 - base > filled) {
+                base = q - 1;
+                window.clear();
+                while (window.hasRemaining() && ch.read(window, base + window.position()) > 0) { }
+                filled = window.position();
+            }
+            byte before = window.get((int) (q - 1 - base));
+            if (before == '\n') return q;
+            if (before == '\r' && (q - base >= filled || window.get((int) (q - base)) != '\n')) return q;
+        }
+        return size;
+    }
+
+    // Stops at the first row over budget, which is still kept in rejected
+    private static Chunk parse(String file, FileChannel ch, long from, long to, boolean header,
+                               Quarantine budget, boolean keepRows) throws IOException {
+        Chunk out = new Chunk();
+        if (to <= from) return out;
+        PipelineEvents.IngestChunk event = new PipelineEvents.IngestChunk();
+        event.begin();
+
+        MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        LineReader lines = new LineReader(new ByteBufferInputStream(map));
+        CsvParser p = new CsvParser();
+        if (header) lines.next(); // skip header
+
+        while (lines.next()) {
+            if (lines.isBlank()) continue;
+            Quarantine.Reason bad;
+            if (p.split(lines.buffer(), lines.start(), lines.length()) < 14) bad = Quarantine.Reason.TOO_FEW_FIELDS;
+            else if (!out.table.addRow(p)) bad = Quarantine.Reason.forField(p.malformedField());
+            else continue;
+            out.table.malformed++;
+            out.rejected.add(new Rejected(lines.lineNumber(), bad, keepRows
+                    ? Arrays.copyOfRange(lines.buffer(), lines.start(), lines.start() + lines.length()) : null));
+            try {
+                budget.charge();
+            } catch (Quarantine.BudgetExceeded e) {
+                out.aborted = e;
+                break;
+            }
+        }
+        out.lines = lines.lineNumber();
+        if (event.shouldCommit()) {
+            event.file = file;
+            event.startOffset = from;
+            event.endOffset = to;
+            event.rows = out.table.size();
+            event.malformed = out.table.malformed();
+            event.commit();
+        }
+        return out;
+    }
+
+    // Lets LineReader consume a mapped region with bulk copies
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buf;
+
+        ByteBufferInputStream(ByteBuffer buf) { this.buf = buf; }
+
+        @Override
+        public int read() {
+            return buf.hasRemaining() ? (buf.get() & 0xff) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buf.hasRemaining()) return -1;
+            int n = Math.min(len, buf.remaining());
+            buf.get(b, off, n);
+            return n;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+// PipelineEvents.java
+// Flight Recorder events for the pipeline, so recordings show time spent per
+// ingest chunk, scoring batch, sort and fairness run rather than only generic
+// frames. Callers create an event, begin() it, and fill in and commit it only
+// if shouldCommit(); with recording off (or an event disabled) that check is
+// false and the JIT removes the event object, so instrumented code runs as
+// before. Enable them with e.g.
+//   java -XX:StartFlightRecording:filename=run.jfr,settings=profile Main ...
+// and view them under the "Admissions" category (jfr print --categories Admissions run.jfr).
+
+import jdk.jfr.*;
+
+public final class PipelineEvents {
+
+    private PipelineEvents() {}
+
+    @Name("admissions.IngestChunk")
+    @Label("Ingest Chunk")
+    @Category({"Admissions", "Ingest"})
+    @Description("One region of the applicants file parsed into table rows")
+    static class IngestChunk extends Event {
+        @Label("File") String file;
+        @Label("Start Offset") @DataAmount long startOffset;
+        @Label("End Offset") @DataAmount long endOffset;
+        @Label("Rows") long rows;
+        @Label("Malformed Rows") long malformed;
+    }
+
+    @Name("admissions.ScoringBatch")
+    @Label("Scoring Batch")
+    @Category({"Admissions", "Scoring"})
+    @Description("Blind and aware scores and decisions for a run of rows; by default only slow batches are recorded")
+    @Threshold("1 ms")
+    static class ScoringBatch extends Event {
+        @Label("First Row") long firstRow;
+        @Label("Rows") long rows;
+        @Label("Cutoff") double cutoff;
+        @Label("Profile") String profile;
+        @Label("Compiled") @Description("Scored by a CompiledScorer rather than Admissions.score") boolean compiled;
+    }
+
+    @Name("admissions.SortPhase")
+    @Label("Sort Phase")
+    @Category({"Admissions", "Ranking"})
+    @Description("Ranking rows by score: a full order, an order repair or a top-k selection")
+    static class SortPhase extends Event {
+        @Label("Phase") String phase;
+        @Label("Rows") long rows;
+        @Label("Rows Sorted") @Description("Rows actually sorted (rescored rows for a repair, kept rows for top-k)") long sorted;
+    }
+
+    @Name("admissions.FairnessAggregation")
+    @Label("Fairness Aggregation")
+    @Category({"Admissions", "Fairness"})
+    @Description("Group and decision counts over the admit bitmaps")
+    static class FairnessAggregation extends Event {
+        @Label("Rows") long rows;
+        @Label("Groups") int groups;
+        @Label("Threads") int threads;
+    }
+
+    @Name("admissions.Stage")
+    @Label("Pipeline Stage")
+    @Category({"Admissions"})
+    @Description("One PipelineMetrics span: a whole stage of Main")
+    static class Stage extends Event {
+        @Label("Stage") String stage;
+        @Label("Rows") long rows;
+        @Label("Bytes") @DataAmount long bytes;
+        @Label("Malformed Rows") long malformed;
+    }
+}
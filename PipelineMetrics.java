@@ -0,0 +1,172 @@
+// PipelineMetrics.java
+// Wall time, throughput, allocation and malformed-row counts per pipeline
+// stage (ingest, score, rank, output, fairness, ...). A stage is timed only
+// at its boundaries, never per row: callers open a span around the work and
+// report its row and byte counts once at the end. Stages with the same name
+// accumulate over runs. Main prints them with --metrics, which also
+// publishes every stage as an MXBean named admissions:type=PipelineStage,name=<stage>.
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import javax.management.*;
+
+public class PipelineMetrics {
+
+    public static final String DOMAIN = "admissions";
+
+    // Per-thread allocation counter, or null when the JVM does not provide one
+    private static final com.sun.management.ThreadMXBean ALLOC = allocationCounter();
+
+    // Read-only JMX view of one stage
+    public interface StageMXBean {
+        String getName();
+        long getRuns();
+        double getWallMillis();
+        long getRows();
+        long getBytes();
+        double getRowsPerSecond();
+        double getBytesPerSecond();
+        long getAllocatedBytes();
+        long getMalformedRows();
+    }
+
+    // Totals of one named stage over all of its spans
+    public static final class Stage implements StageMXBean {
+        private final String name;
+        private long runs, nanos, rows, bytes, allocated, malformed;
+
+        Stage(String name) { this.name = name; }
+
+        synchronized void add(long nanos, long rows, long bytes, long allocated, long malformed) {
+            runs++;
+            this.nanos += nanos;
+            this.rows += rows;
+            this.bytes += bytes;
+            this.allocated = (this.allocated < 0 || allocated < 0) ? -1 : this.allocated + allocated;
+            this.malformed += malformed;
+        }
+
+        @Override public String getName()                     { return name; }
+        @Override public synchronized long getRuns()          { return runs; }
+        @Override public synchronized double getWallMillis()  { return nanos / 1e6; }
+        @Override public synchronized long getRows()          { return rows; }
+        @Override public synchronized long getBytes()         { return bytes; }
+        @Override public synchronized double getRowsPerSecond()  { return perSecond(rows); }
+        @Override public synchronized double getBytesPerSecond() { return perSecond(bytes); }
+        // -1 when allocation cannot be measured
+        @Override public synchronized long getAllocatedBytes() { return allocated; }
+        @Override public synchronized long getMalformedRows()  { return malformed; }
+
+        private double perSecond(long count) {
+            return nanos == 0 ? 0.0 : count * 1e9 / nanos;
+        }
+    }
+
+    // One timed run of a stage; closing it adds the run to the stage and
+    // commits an admissions.Stage flight recorder event.
+    // Allocation is that of the thread which opened the span: work the stage
+    // hands to a pool is timed but its allocation is not counted.
+    public final class Span implements AutoCloseable {
+        private final Stage stage;
+        private final PipelineEvents.Stage event = new PipelineEvents.Stage();
+        private final long start, allocStart;
+        private long rows, bytes, malformed;
+        private boolean closed;
+
+        Span(Stage stage) {
+            this.stage = stage;
+            this.allocStart = allocatedBytes();
+            this.start = System.nanoTime();
+            event.begin();
+        }
+
+        public Span rows(long n)      { rows = n; return this; }
+        public Span bytes(long n)     { bytes = n; return this; }
+        public Span malformed(long n) { malformed = n; return this; }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            event.end();
+            long nanos = System.nanoTime() - start;
+            long alloc = allocatedBytes();
+            stage.add(nanos, rows, bytes, (alloc < 0 || allocStart < 0) ? -1 : alloc - allocStart, malformed);
+            if (event.shouldCommit()) {
+                event.stage = stage.name;
+                event.rows = rows;
+                event.bytes = bytes;
+                event.malformed = malformed;
+                event.commit();
+            }
+        }
+    }
+
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+    private boolean published;
+
+    // Starts timing a run of the named stage
+    public Span start(String name) {
+        return new Span(stage(name));
+    }
+
+    public synchronized Stage stage(String name) {
+        Stage s = stages.get(name);
+        if (s == null) {
+            s = new Stage(name);
+            stages.put(name, s);
+            if (published) register(s);
+        }
+        return s;
+    }
+
+    // Stages in the order they first ran
+    public synchronized List<Stage> stages() {
+        return new ArrayList<>(stages.values());
+    }
+
+    // Registers every stage, current and future, on the platform MBeanServer
+    public synchronized PipelineMetrics publish() {
+        if (!published) {
+            published = true;
+            for (Stage s : stages.values()) register(s);
+        }
+        return this;
+    }
+
+    private static void register(Stage s) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DOMAIN + ":type=PipelineStage,name=" + ObjectName.quote(s.name));
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+            server.registerMBean(s, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register metrics for stage " + s.name, e);
+        }
+    }
+
+    public void print(PrintStream out) {
+        out.println("\n=== Pipeline metrics ===");
+        out.printf("%-12s | %10s | %12s | %12s | %9s | %9s | %10s | %9s%n",
+                "Stage", "Wall ms", "Rows", "Rows/s", "MB", "MB/s", "Alloc MB", "Malformed");
+        for (Stage s : stages()) {
+            long alloc = s.getAllocatedBytes();
+            out.printf("%-12s | %10.1f | %12d | %12.0f | %9.1f | %9.1f | %10s | %9d%n",
+                    s.getName(), s.getWallMillis(), s.getRows(), s.getRowsPerSecond(),
+                    s.getBytes() / 1e6, s.getBytesPerSecond() / 1e6,
+                    alloc < 0 ? "n/a" : String.format("%.1f", alloc / 1e6), s.getMalformedRows());
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ALLOC == null ? -1 : ALLOC.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean t = ManagementFactory.getThreadMXBean();
+        if (!(t instanceof com.sun.management.ThreadMXBean)) return null;
+        com.sun.management.ThreadMXBean c = (com.sun.management.ThreadMXBean) t;
+        return c.isThreadAllocatedMemorySupported() && c.isThreadAllocatedMemoryEnabled() ? c : null;
+    }
+}
@@ -0,0 +1,153 @@
+// ProfileEvaluator.java
+// Scores many weight profiles against the same table in one pass over the
+// data. Rows are processed in cache-sized blocks: the normalized features of
+// a block (a BLOCK x 5 matrix) are computed once and then multiplied by every
+// profile's weight vector while still in cache, so the columns are streamed
+// from memory once no matter how many profiles are compared.
+
+import java.util.*;
+import java.util.concurrent.*;
+
+public class ProfileEvaluator {
+
+    // CompiledScorer's blocks: five double feature columns plus scratch stay well inside L2
+    static final int BLOCK = CompiledScorer.BLOCK;
+
+    // Totals for one profile
+    public static class Result extends AdmitCounts {
+        public final WeightProfile profile;
+
+        Result(WeightProfile profile, int groups) {
+            super(groups);
+            this.profile = profile;
+        }
+    }
+
+    private final ApplicantTable table;
+    private final List<Bitmap> members;
+
+    // groups: label -> member rows, e.g. Main.groups
+    public ProfileEvaluator(ApplicantTable table, Map<String, Bitmap> groups) {
+        this.table = table;
+        this.members = new ArrayList<>(groups.values());
+    }
+
+    public List<Result> run(List<WeightProfile> profiles, double cutoff, int threads) {
+        int n = table.size();
+        int blocks = (n + BLOCK - 1) / BLOCK;
+        // Every profile scores every row, so the work is rows x profiles
+        long work = (long) n * Math.max(1, profiles.size());
+        int parts = (int) Math.max(1, Math.min(Math.min(threads, blocks), work / Admissions.MIN_ROWS_PER_THREAD));
+
+        if (parts == 1) return evaluate(profiles, cutoff, 0, blocks);
+
+        ExecutorService pool = Executors.newFixedThreadPool(parts);
+        try {
+            List<Future<List<Result>>> partial = new ArrayList<>();
+            for (int p = 0; p < parts; p++) {
+                int from = (int) ((long) blocks * p / parts), to = (int) ((long) blocks * (p + 1) / parts);
+                partial.add(pool.submit(() -> evaluate(profiles, cutoff, from, to)));
+            }
+            List<Result> total = partial.get(0).get();
+            for (int p = 1; p < parts; p++) {
+                List<Result> r = partial.get(p).get();
+                for (int k = 0; k < total.size(); k++) total.get(k).merge(r.get(k));
+            }
+            return total;
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("Profile evaluation failed", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Blocks [fromBlock, toBlock). Per block: normalize once per distinct
+    // (maxGpa, maxTest), then score every profile with the same arithmetic as
+    // Admissions.score, collecting decisions as bit words for group counts.
+    private List<Result> evaluate(List<WeightProfile> profiles, double cutoff, int fromBlock, int toBlock) {
+        int groups = members.size();
+        List<Result> results = new ArrayList<>(profiles.size());
+        for (WeightProfile p : profiles) results.add(new Result(p, groups));
+
+        final int words = BLOCK / 64;
+        double[] gpaN = new double[BLOCK], testN = new double[BLOCK];
+        double[] extraN = new double[BLOCK], essayN = new double[BLOCK], recN = new double[BLOCK];
+        long[] blindWords = new long[words], awareWords = new long[words];
+        long[][] groupWords = new long[groups][];
+        for (int g = 0; g < groups; g++) groupWords[g] = members.get(g).words;
+        final long[] fg = table.firstGenBits.words, dis = table.disabilityBits.words;
+        final long[] leg = table.legacyBits.words, loc = table.localBits.words;
+        final double[] income = table.income;
+        int n = table.size();
+
+        for (int block = fromBlock; block < toBlock; block++) {
+            int base = block * BLOCK, len = Math.min(BLOCK, n - base);
+
+            // Scale-independent features once per block
+            for (int i = 0; i < len; i++) {
+                extraN[i] = Admissions.clampFast(Admissions.finiteOr0(table.extra[base + i]));
+                essayN[i] = Admissions.clampFast(Admissions.finiteOr0(table.essay[base + i]));
+                recN[i]   = Admissions.clampFast(Admissions.finiteOr0(table.rec[base + i]));
+            }
+            double maxGpa = Double.NaN, maxTest = Double.NaN;
+
+            for (int k = 0; k < profiles.size(); k++) {
+                WeightProfile p = profiles.get(k);
+                if (Double.compare(p.maxGpa, maxGpa) != 0 || Double.compare(p.maxTest, maxTest) != 0) {
+                    maxGpa = p.maxGpa;
+                    maxTest = p.maxTest;
+                    for (int i = 0; i < len; i++) {
+                        gpaN[i]  = Admissions.clampFast(Admissions.finiteOr0(table.gpa[base + i]) / maxGpa);
+                        testN[i] = Admissions.clampFast(table.test[base + i] / maxTest);
+                    }
+                }
+
+                final double wGpa = p.wGpa, wTest = p.wTest, wExtra = p.wExtra, wEssay = p.wEssay, wRec = p.wRec;
+                final double low = p.lowIncomeThreshold, bLow = p.bonusLowIncome, bFg = p.bonusFirstGen;
+                final double bDis = p.bonusDisability, bLeg = p.bonusLegacy, bLoc = p.bonusLocal;
+                Arrays.fill(blindWords, 0L);
+                Arrays.fill(awareWords, 0L);
+
+                for (int i = 0; i < len; i++) {
+                    double score = 0.0;
+                    score += gpaN[i]   * wGpa;
+                    score += testN[i]  * wTest;
+                    score += extraN[i] * wExtra;
+                    score += essayN[i] * wEssay;
+                    score += recN[i]   * wRec;
+                    double blind = Admissions.clampFast(score);
+
+                    int row = base + i, w = row >>> 6;
+                    long bit = 1L << row;
+                    double aware = blind;
+                    aware += (income[row] < low)     ? bLow : 0.0;
+                    aware += ((fg[w] & bit) != 0)    ? bFg  : 0.0;
+                    aware += ((dis[w] & bit) != 0)   ? bDis : 0.0;
+                    aware += ((leg[w] & bit) != 0)   ? bLeg : 0.0;
+                    aware += ((loc[w] & bit) != 0)   ? bLoc : 0.0;
+                    aware = Admissions.clampFast(aware);
+
+                    blindWords[i >>> 6] |= (blind >= cutoff) ? (1L << i) : 0L;
+                    awareWords[i >>> 6] |= (aware >= cutoff) ? (1L << i) : 0L;
+                }
+
+                Result r = results.get(k);
+                int firstWord = base >>> 6;
+                for (int w = 0, used = (len + 63) >>> 6; w < used; w++) {
+                    long b = blindWords[w], a = awareWords[w];
+                    r.blindAdmits += Long.bitCount(b);
+                    r.awareAdmits += Long.bitCount(a);
+                    r.flipsUp += Long.bitCount(a & ~b);
+                    r.flipsDown += Long.bitCount(b & ~a);
+                    for (int g = 0; g < groups; g++) {
+                        long[] gw = groupWords[g];
+                        long m = (firstWord + w < gw.length) ? gw[firstWord + w] : 0L;
+                        r.groupBlindIn[g] += Long.bitCount(m & b);
+                        r.groupAwareIn[g] += Long.bitCount(m & a);
+                    }
+                }
+            }
+        }
+        return results;
+    }
+}
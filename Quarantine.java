@@ -0,0 +1,159 @@
+// Quarantine.java
+// Where the loaders send rows they cannot use, instead of printing each one.
+// Rejected rows are counted by reason and, when a side file is given, written
+// there as CSV (line,reason,row) with the raw row quoted, so they can be
+// inspected, fixed and read again. Lines are buffered and written in blocks.
+// A budget of maxErrors rows aborts the load (BudgetExceeded) as soon as more
+// rows than that are rejected, so a broken export fails fast.
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Quarantine implements Closeable {
+
+    // Buffered side-file bytes are written out once past this size
+    static final int FLUSH_AT = 1 << 16;
+
+    public enum Reason {
+        TOO_FEW_FIELDS("too few fields"),
+        BAD_AGE("bad age"),
+        BAD_INCOME("bad income"),
+        BAD_GPA("bad gpa"),
+        BAD_TEST("bad test"),
+        BAD_EXTRA("bad extra"),
+        BAD_ESSAY("bad essay"),
+        BAD_REC("bad rec");
+
+        private final String label;
+
+        Reason(String label) { this.label = label; }
+
+        public String label() { return label; }
+
+        // The reason for a numeric field of the 14-column schema that did not parse
+        public static Reason forField(int field) {
+            switch (field) {
+                case 1:  return BAD_AGE;
+                case 4:  return BAD_INCOME;
+                case 7:  return BAD_GPA;
+                case 8:  return BAD_TEST;
+                case 9:  return BAD_EXTRA;
+                case 10: return BAD_ESSAY;
+                case 11: return BAD_REC;
+                default: throw new IllegalArgumentException("Field " + field + " is not numeric");
+            }
+        }
+    }
+
+    public static class BudgetExceeded extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        BudgetExceeded(long maxErrors) {
+            super("Aborted: more than " + maxErrors + " malformed rows");
+        }
+    }
+
+    private final Path file;            // null: count only
+    private final OutputStream out;
+    private final long maxErrors;
+    private final AtomicLong charged = new AtomicLong();
+    private final long[] counts = new long[Reason.values().length];
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream(FLUSH_AT + 1024);
+
+    private Quarantine(Path file, OutputStream out, long maxErrors) {
+        this.file = file;
+        this.out = out;
+        this.maxErrors = maxErrors;
+    }
+
+    // Counts rejected rows without keeping them, with no budget
+    public static Quarantine discard() {
+        return discard(Long.MAX_VALUE);
+    }
+
+    public static Quarantine discard(long maxErrors) {
+        return new Quarantine(null, null, maxErrors);
+    }
+
+    // Writes rejected rows to file (replacing it)
+    public static Quarantine open(Path file, long maxErrors) throws IOException {
+        Quarantine q = new Quarantine(file, new FileOutputStream(file.toFile()), maxErrors);
+        q.pending.write("line,reason,row\n".getBytes(StandardCharsets.US_ASCII));
+        return q;
+    }
+
+    public Path file() { return file; }
+
+    public long maxErrors() { return maxErrors; }
+
+    // Rejects one row: records it, then charges it against the budget
+    public void reject(long line, Reason reason, byte[] row, int off, int len) {
+        record(line, reason, row, off, len);
+        charge();
+    }
+
+    // Charges one rejected row against the budget; thread-safe. Loaders that
+    // learn line numbers late (ParallelLoader) charge as they go and record later.
+    public void charge() {
+        if (charged.incrementAndGet() > maxErrors) throw new BudgetExceeded(maxErrors);
+    }
+
+    // Counts a row by reason and queues it for the side file
+    public synchronized void record(long line, Reason reason, byte[] row, int off, int len) {
+        counts[reason.ordinal()]++;
+        if (out == null) return;
+        byte[] prefix = (line + "," + reason.label + ",\"").getBytes(StandardCharsets.US_ASCII);
+        pending.write(prefix, 0, prefix.length);
+        for (int i = off, end = off + len; i < end; i++) {
+            if (row[i] == '"') pending.write('"');
+            pending.write(row[i]);
+        }
+        pending.write('"');
+        pending.write('\n');
+        if (pending.size() >= FLUSH_AT) drain();
+    }
+
+    public synchronized long total() {
+        long n = 0;
+        for (long c : counts) n += c;
+        return n;
+    }
+
+    public synchronized long count(Reason reason) {
+        return counts[reason.ordinal()];
+    }
+
+    // Counts of the reasons seen, most frequent first
+    public synchronized Map<Reason, Long> counts() {
+        List<Reason> seen = new ArrayList<>();
+        for (Reason r : Reason.values()) if (counts[r.ordinal()] > 0) seen.add(r);
+        seen.sort((a, b) -> Long.compare(counts[b.ordinal()], counts[a.ordinal()]));
+        Map<Reason, Long> out = new LinkedHashMap<>();
+        for (Reason r : seen) out.put(r, counts[r.ordinal()]);
+        return out;
+    }
+
+    private void drain() {
+        try {
+            pending.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pending.reset();
+    }
+
+    // Writes everything queued and closes the side file
+    @Override
+    public synchronized void close() {
+        if (out == null) return;
+        drain();
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
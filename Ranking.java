@@ -0,0 +1,161 @@
+// Ranking.java
+// Orders rows by score, highest first. Ties keep row order, exactly as the
+// stable List.sort in Main did, so ranks do not depend on the method used.
+
+public class Ranking {
+
+    // True if row a ranks ahead of row b
+    private static boolean ahead(double[] scores, int a, int b) {
+        int c = Double.compare(scores[a], scores[b]);
+        return c > 0 || (c == 0 && a < b);
+    }
+
+    // All row ids, best first (stable bottom-up merge sort on primitive ints)
+    public static int[] order(double[] scores) {
+        PipelineEvents.SortPhase event = new PipelineEvents.SortPhase();
+        event.begin();
+        int n = scores.length;
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) a[i] = i;
+        sort(scores, a, n);
+        if (event.shouldCommit()) {
+            event.phase = "order";
+            event.rows = n;
+            event.sorted = n;
+            event.commit();
+        }
+        return a;
+    }
+
+    // Sorts rows[0, n) best first. Input already in order costs one pass.
+    public static void sort(double[] scores, int[] rows, int n) {
+        boolean sorted = true;
+        for (int i = 1; i < n && sorted; i++) sorted = !ahead(scores, rows[i], rows[i - 1]);
+        if (sorted) return;
+
+        int[] a = rows, b = new int[n];
+        for (int width = 1; width < n; width <<= 1) {
+            for (int lo = 0; lo < n; lo += width << 1) {
+                int mid = Math.min(lo + width, n), hi = Math.min(lo + (width << 1), n);
+                int l = lo, r = mid, o = lo;
+                while (l < mid && r < hi) b[o++] = ahead(scores, a[r], a[l]) ? a[r++] : a[l++];
+                while (l < mid) b[o++] = a[l++];
+                while (r < hi)  b[o++] = a[r++];
+            }
+            int[] t = a; a = b; b = t;
+        }
+        if (a != rows) System.arraycopy(a, 0, rows, 0, n);
+    }
+
+    // Merges the best-first runs x[0, xn) and y[0, yn) into out
+    public static void merge(double[] scores, int[] x, int xn, int[] y, int yn, int[] out) {
+        int i = 0, j = 0, o = 0;
+        while (i < xn && j < yn) out[o++] = ahead(scores, y[j], x[i]) ? y[j++] : x[i++];
+        while (i < xn) out[o++] = x[i++];
+        while (j < yn) out[o++] = y[j++];
+    }
+
+    // order was best first before the rows set in changed were rescored. The
+    // others keep their relative order, so only the changed rows (m of them)
+    // are sorted and merged back in: O(n + m log m). keep and moved are
+    // scratch of at least order.length.
+    public static void repair(double[] scores, int[] order, Bitmap changed, int[] keep, int[] moved) {
+        PipelineEvents.SortPhase event = new PipelineEvents.SortPhase();
+        event.begin();
+        int kept = 0, move = 0;
+        for (int row : order) {
+            if (changed.get(row)) moved[move++] = row;
+            else keep[kept++] = row;
+        }
+        if (move == 0) return;
+        sort(scores, moved, move);
+        merge(scores, keep, kept, moved, move, order);
+        if (event.shouldCommit()) {
+            event.phase = "repair";
+            event.rows = order.length;
+            event.sorted = move;
+            event.commit();
+        }
+    }
+
+    // rank[row] = 1-based position of row in order
+    public static int[] ranks(int[] order) {
+        int[] rank = new int[order.length];
+        for (int pos = 0; pos < order.length; pos++) rank[order[pos]] = pos + 1;
+        return rank;
+    }
+
+    // Shorthand for ranks(order(scores))
+    public static int[] ranks(double[] scores) {
+        return ranks(order(scores));
+    }
+
+    // The k best rows, best first, in O(n log k) using a bounded min-heap
+    // whose root is the weakest row kept so far.
+    public static int[] topK(double[] scores, int k) {
+        return topK(scores, k, null);
+    }
+
+    // Admitted rows only (those set in admitted), best first
+    public static int[] admitted(double[] scores, Bitmap admitted) {
+        return topK(scores, admitted.cardinality(), admitted);
+    }
+
+    private static int[] topK(double[] scores, int k, Bitmap filter) {
+        PipelineEvents.SortPhase event = new PipelineEvents.SortPhase();
+        event.begin();
+        k = Math.max(0, Math.min(k, scores.length));
+        int[] heap = new int[k];
+        int size = 0;
+
+        for (int i = 0; i < scores.length && k > 0; i++) {
+            if (filter != null && !filter.get(i)) continue;
+            if (size < k) {
+                heap[size] = i;
+                siftUp(scores, heap, size++);
+            } else if (ahead(scores, i, heap[0])) {
+                heap[0] = i;
+                siftDown(scores, heap, 0, size);
+            }
+        }
+
+        // Pop the weakest repeatedly into the tail: leaves heap[0..size) best first
+        for (int end = size - 1; end > 0; end--) {
+            int weakest = heap[0];
+            heap[0] = heap[end];
+            heap[end] = weakest;
+            siftDown(scores, heap, 0, end);
+        }
+        if (event.shouldCommit()) {
+            event.phase = filter == null ? "topK" : "admitted";
+            event.rows = scores.length;
+            event.sorted = size;
+            event.commit();
+        }
+        return size == k ? heap : java.util.Arrays.copyOf(heap, size);
+    }
+
+    private static void siftUp(double[] scores, int[] heap, int pos) {
+        int row = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!ahead(scores, heap[parent], row)) break;
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = row;
+    }
+
+    private static void siftDown(double[] scores, int[] heap, int pos, int size) {
+        int row = heap[pos];
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= size) break;
+            if (child + 1 < size && ahead(scores, heap[child], heap[child + 1])) child++;
+            if (!ahead(scores, row, heap[child])) break;
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = row;
+    }
+}
@@ -0,0 +1,278 @@
+// ReportWriter.java
+// Writes the per-applicant results table. Rows are formatted by hand into a
+// large buffer that goes to the stream in blocks, instead of one printf (and
+// one synchronized stdout write) per row. Formats:
+//   text     - the table Main has always printed, byte for byte
+//   csv      - one header line, then one line per applicant (rows only)
+//   jsonl    - one JSON object per applicant (rows only)
+//   summary  - no rows at all; only the summaries after the table are printed
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+public abstract class ReportWriter {
+
+    // Buffered characters are written out once past this size
+    static final int FLUSH_AT = 1 << 16;
+
+    protected final StringBuilder buf = new StringBuilder(FLUSH_AT + 256);
+    private final Writer out;
+    private final Counting counted;
+
+    protected ReportWriter(OutputStream out) {
+        // Same charset as System.out, so text output is unchanged
+        this.counted = new Counting(out);
+        this.out = new OutputStreamWriter(counted, Charset.defaultCharset());
+    }
+
+    public static ReportWriter forFormat(String format, OutputStream out) {
+        switch (format) {
+            case "text":    return new Text(out);
+            case "csv":     return new Csv(out);
+            case "jsonl":   return new JsonLines(out);
+            case "summary": return new Summary(out);
+            default: throw new IllegalArgumentException("Unknown format: " + format + " (text, csv, jsonl, summary)");
+        }
+    }
+
+    // False if rows are ignored, so callers can skip ranking them
+    public boolean wantsRows()       { return true; }
+    // True if the disagreement and group summaries belong after the table
+    public boolean wantsSummaries()  { return true; }
+
+    public abstract void begin(double cutoff);
+
+    public abstract void row(String name, double blind, double aware, boolean blindAdmitted,
+                             boolean awareAdmitted, int blindRank, int awareRank);
+
+    protected final void endRow() {
+        if (buf.length() >= FLUSH_AT) drain();
+    }
+
+    // Writes everything buffered and flushes the stream (which stays open)
+    public void flush() {
+        drain();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Encoded bytes handed to the stream so far
+    public long bytesWritten() { return counted.count; }
+
+    private void drain() {
+        try {
+            out.append(buf);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buf.setLength(0);
+    }
+
+    private static class Counting extends FilterOutputStream {
+        long count;
+
+        Counting(OutputStream out) { super(out); }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    // The "=== Admissions Results ===" table, identical to
+    // printf("%-15s | %6.2f | %6.2f | %8s | %8s | %6d | %6d | %+d%n", ...)
+    static class Text extends ReportWriter {
+        private static final String NL = System.lineSeparator();
+        // The hand formatting below assumes the symbols of an English-like locale
+        private final boolean plain;
+
+        Text(OutputStream out) {
+            super(out);
+            DecimalFormatSymbols sym = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT));
+            plain = sym.getZeroDigit() == '0' && sym.getDecimalSeparator() == '.';
+        }
+
+        @Override
+        public void begin(double cutoff) {
+            buf.append("=== Admissions Results (cutoff = ").append(cutoff).append(") ===").append(NL);
+            buf.append(String.format("%-15s | %6s | %6s | %8s | %8s | %6s | %6s | %s%n",
+                    "Name", "Blind", "Aware", "B.Dec", "A.Dec", "BRank", "ARank", "ΔRank"));
+        }
+
+        @Override
+        public void row(String name, double blind, double aware, boolean blindAdmitted,
+                        boolean awareAdmitted, int blindRank, int awareRank) {
+            if (!plain) {
+                buf.append(String.format("%-15s | %6.2f | %6.2f | %8s | %8s | %6d | %6d | %+d%n", name, blind, aware,
+                        blindAdmitted ? "Admitted" : "Rejected", awareAdmitted ? "Admitted" : "Rejected",
+                        blindRank, awareRank, blindRank - awareRank));
+                endRow();
+                return;
+            }
+            String s = String.valueOf(name);
+            buf.append(s);
+            for (int i = s.length(); i < 15; i++) buf.append(' ');
+            buf.append(" | ");
+            fixed2(blind);
+            buf.append(" | ");
+            fixed2(aware);
+            buf.append(" | ").append(blindAdmitted ? "Admitted" : "Rejected");
+            buf.append(" | ").append(awareAdmitted ? "Admitted" : "Rejected");
+            buf.append(" | ");
+            padLeft(Integer.toString(blindRank), 6);
+            buf.append(" | ");
+            padLeft(Integer.toString(awareRank), 6);
+            buf.append(" | ");
+            int d = blindRank - awareRank;
+            if (d >= 0) buf.append('+');
+            buf.append(d).append(NL);
+            endRow();
+        }
+
+        // %6.2f. Rounding x * 100 to the nearest integer agrees with Formatter
+        // except within rounding error of a .5 tie; ties and anything unusual
+        // (negative, huge, NaN) are left to Formatter itself.
+        private void fixed2(double x) {
+            if (Double.doubleToRawLongBits(x) >= 0 && x < 1e6) { // sign bit clear (not -0.0), not NaN
+                double scaled = x * 100;
+                double frac = scaled - Math.floor(scaled);
+                if (Math.abs(frac - 0.5) > 1e-6) {
+                    long cents = (long) Math.floor(scaled + 0.5);
+                    long units = cents / 100;
+                    int rem = (int) (cents % 100);
+                    String u = Long.toString(units);
+                    for (int i = u.length() + 3; i < 6; i++) buf.append(' ');
+                    buf.append(u).append('.').append((char) ('0' + rem / 10)).append((char) ('0' + rem % 10));
+                    return;
+                }
+            }
+            buf.append(String.format("%6.2f", x));
+        }
+
+        private void padLeft(String s, int width) {
+            for (int i = s.length(); i < width; i++) buf.append(' ');
+            buf.append(s);
+        }
+    }
+
+    static class Csv extends ReportWriter {
+        Csv(OutputStream out) { super(out); }
+
+        @Override public boolean wantsSummaries() { return false; }
+
+        @Override
+        public void begin(double cutoff) {
+            buf.append("name,blind,aware,blind_decision,aware_decision,blind_rank,aware_rank,rank_delta\n");
+        }
+
+        @Override
+        public void row(String name, double blind, double aware, boolean blindAdmitted,
+                        boolean awareAdmitted, int blindRank, int awareRank) {
+            quoted(name);
+            buf.append(',').append(blind).append(',').append(aware)
+               .append(',').append(blindAdmitted ? "Admitted" : "Rejected")
+               .append(',').append(awareAdmitted ? "Admitted" : "Rejected")
+               .append(',').append(blindRank).append(',').append(awareRank)
+               .append(',').append(blindRank - awareRank).append('\n');
+            endRow();
+        }
+
+        // RFC 4180: quote fields holding a comma, quote or line break
+        private void quoted(String s) {
+            boolean quote = false;
+            for (int i = 0; i < s.length() && !quote; i++) {
+                char c = s.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                buf.append(s);
+                return;
+            }
+            buf.append('"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '"') buf.append('"');
+                buf.append(c);
+            }
+            buf.append('"');
+        }
+    }
+
+    static class JsonLines extends ReportWriter {
+        JsonLines(OutputStream out) { super(out); }
+
+        @Override public boolean wantsSummaries() { return false; }
+
+        @Override
+        public void begin(double cutoff) {
+        }
+
+        @Override
+        public void row(String name, double blind, double aware, boolean blindAdmitted,
+                        boolean awareAdmitted, int blindRank, int awareRank) {
+            buf.append("{\"name\":");
+            string(name);
+            buf.append(",\"blind\":");
+            number(blind);
+            buf.append(",\"aware\":");
+            number(aware);
+            buf.append(",\"blindAdmitted\":").append(blindAdmitted)
+               .append(",\"awareAdmitted\":").append(awareAdmitted)
+               .append(",\"blindRank\":").append(blindRank)
+               .append(",\"awareRank\":").append(awareRank)
+               .append(",\"rankDelta\":").append(blindRank - awareRank).append("}\n");
+            endRow();
+        }
+
+        // JSON has no NaN or Infinity
+        private void number(double x) {
+            if (Double.isFinite(x)) buf.append(x);
+            else buf.append("null");
+        }
+
+        private void string(String s) {
+            buf.append('"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '"':  buf.append("\\\""); break;
+                    case '\\': buf.append("\\\\"); break;
+                    case '\n': buf.append("\\n"); break;
+                    case '\r': buf.append("\\r"); break;
+                    case '\t': buf.append("\\t"); break;
+                    default:
+                        if (c < 0x20) buf.append(String.format("\\u%04x", (int) c));
+                        else buf.append(c);
+                }
+            }
+            buf.append('"');
+        }
+    }
+
+    static class Summary extends ReportWriter {
+        Summary(OutputStream out) { super(out); }
+
+        @Override public boolean wantsRows() { return false; }
+
+        @Override
+        public void begin(double cutoff) {
+        }
+
+        @Override
+        public void row(String name, double blind, double aware, boolean blindAdmitted,
+                        boolean awareAdmitted, int blindRank, int awareRank) {
+        }
+    }
+}
@@ -0,0 +1,47 @@
+// ScorerCompiler.java
+// Turns a WeightProfile into a CompiledScorer and caches it by the profile's
+// numbers, so a sweep that rebuilds equal profiles compiles each one once.
+
+import java.util.*;
+import java.util.concurrent.*;
+
+public class ScorerCompiler {
+
+    // Cleared when full rather than evicting one by one; sweeps rarely revisit old profiles
+    static final int MAX_CACHED = 256;
+
+    private static final ConcurrentHashMap<Key, CompiledScorer> cache = new ConcurrentHashMap<>();
+
+    // Equal profiles share one scorer, whose profile() is the first one compiled
+    public static CompiledScorer compile(WeightProfile p) {
+        Key key = new Key(p);
+        CompiledScorer s = cache.get(key);
+        if (s != null) return s;
+        if (cache.size() >= MAX_CACHED) cache.clear();
+        return cache.computeIfAbsent(key, k -> new CompiledScorer(p));
+    }
+
+    // Every number that affects a score (not the name)
+    private static final class Key {
+        private final long[] bits;
+
+        Key(WeightProfile p) {
+            WeightProfile.Term[] terms = WeightProfile.Term.values();
+            bits = new long[terms.length + 3];
+            for (WeightProfile.Term term : terms) bits[term.ordinal()] = Double.doubleToLongBits(term.get(p));
+            bits[terms.length] = Double.doubleToLongBits(p.maxGpa);
+            bits[terms.length + 1] = Double.doubleToLongBits(p.maxTest);
+            bits[terms.length + 2] = Double.doubleToLongBits(p.lowIncomeThreshold);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && Arrays.equals(bits, ((Key) o).bits);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(bits);
+        }
+    }
+}
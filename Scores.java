@@ -0,0 +1,42 @@
+// Scores.java
+// Blind and aware scores for every row of an ApplicantTable under one
+// WeightProfile, with the admit decisions at one cutoff kept as bitmaps.
+
+public class Scores {
+    final double cutoff;
+    final WeightProfile profile;
+    final double[] blind, aware;
+    final Bitmap blindAdmitted, awareAdmitted;
+
+    Scores(int n, double cutoff, WeightProfile profile) {
+        this(cutoff, profile, new double[n], new double[n], new Bitmap(n), new Bitmap(n));
+    }
+
+    // A view over existing arrays (no copy)
+    Scores(double cutoff, WeightProfile profile, double[] blind, double[] aware,
+           Bitmap blindAdmitted, Bitmap awareAdmitted) {
+        this.cutoff = cutoff;
+        this.profile = profile;
+        this.blind = blind;
+        this.aware = aware;
+        this.blindAdmitted = blindAdmitted;
+        this.awareAdmitted = awareAdmitted;
+    }
+
+    public int size()                     { return blind.length; }
+    public WeightProfile profile()        { return profile; }
+    public double blind(int i)            { return blind[i]; }
+    public double aware(int i)            { return aware[i]; }
+    public boolean blindAdmitted(int i)   { return blindAdmitted.get(i); }
+    public boolean awareAdmitted(int i)   { return awareAdmitted.get(i); }
+
+    // Rejected by the blind model but admitted by the aware one
+    public long flipsUp() {
+        return awareAdmitted.cardinality() - blindAdmitted.andCardinality(awareAdmitted);
+    }
+
+    // Admitted by the blind model but rejected by the aware one
+    public long flipsDown() {
+        return blindAdmitted.cardinality() - blindAdmitted.andCardinality(awareAdmitted);
+    }
+}
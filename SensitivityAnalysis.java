@@ -0,0 +1,137 @@
+// SensitivityAnalysis.java
+// Perturbs one weight or bonus at a time and measures what moves: admit
+// counts, group admit rates, and rank churn against the unperturbed ranking.
+// Every perturbation scores the same in-memory table; they are spread over
+// a ForkJoinPool, each task scoring with the compiled scorer for its profile.
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class SensitivityAnalysis {
+
+    // One perturbed profile
+    public static class Point extends AdmitCounts {
+        public final WeightProfile.Term term;
+        public final double value, delta;
+        // Mean |new rank - base rank| over all rows
+        public double blindChurn, awareChurn;
+
+        Point(WeightProfile.Term term, double value, double delta, int groups) {
+            super(groups);
+            this.term = term;
+            this.value = value;
+            this.delta = delta;
+        }
+    }
+
+    private final ApplicantTable table;
+    private final WeightProfile base;
+    private final double cutoff;
+    private final List<Bitmap> members;
+
+    // groups: label -> member rows, e.g. Main.groups
+    public SensitivityAnalysis(ApplicantTable table, WeightProfile base, double cutoff, Map<String, Bitmap> groups) {
+        this.table = table;
+        this.base = base;
+        this.cutoff = cutoff;
+        this.members = new ArrayList<>(groups.values());
+    }
+
+    // Each term at base value + each delta, in term then delta order
+    public List<Point> run(List<WeightProfile.Term> terms, double[] deltas, int threads) {
+        Point[] points = new Point[terms.size() * deltas.length];
+        int k = 0;
+        for (WeightProfile.Term term : terms) {
+            for (double d : deltas) points[k++] = new Point(term, offset(term.get(base), d), d, members.size());
+        }
+
+        Scores s = ScorerCompiler.compile(base).score(table, cutoff);
+        int[] awareOrder = Ranking.order(s.aware);
+        Baseline b = new Baseline(Ranking.ranks(s.blind), awareOrder, Ranking.ranks(awareOrder));
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        try {
+            pool.invoke(new Task(points, 0, points.length, b));
+        } finally {
+            pool.shutdown();
+        }
+        return Arrays.asList(points);
+    }
+
+    // v + d in decimal, so 0.45 + 0.01 is 0.46 and not 0.46000000000000002
+    static double offset(double v, double d) {
+        if (!Double.isFinite(v) || !Double.isFinite(d)) return v + d;
+        return new BigDecimal(Double.toString(v)).add(new BigDecimal(Double.toString(d))).doubleValue();
+    }
+
+    // The unperturbed rankings, shared read-only by all tasks
+    private static class Baseline {
+        final int[] blindRank, awareOrder, awareRank;
+
+        Baseline(int[] blindRank, int[] awareOrder, int[] awareRank) {
+            this.blindRank = blindRank;
+            this.awareOrder = awareOrder;
+            this.awareRank = awareRank;
+        }
+    }
+
+    // Points [from, to), split in halves down to one profile per leaf
+    @SuppressWarnings("serial")
+    private class Task extends RecursiveAction {
+        private final Point[] points;
+        private final int from, to;
+        private final Baseline base;
+
+        Task(Point[] points, int from, int to, Baseline base) {
+            this.points = points;
+            this.from = from;
+            this.to = to;
+            this.base = base;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                evaluate(points[from], base);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Task(points, from, mid, base), new Task(points, mid, to, base));
+        }
+    }
+
+    private void evaluate(Point pt, Baseline b) {
+        Scores s = ScorerCompiler.compile(pt.term.with(base, pt.value)).score(table, cutoff);
+        pt.count(s.blindAdmitted, s.awareAdmitted, members);
+        if (pt.term.isBonus()) {
+            // Blind scores are untouched, and only the bonus group's aware
+            // scores moved: repair the base order instead of sorting anew
+            int n = s.aware.length;
+            int[] order = b.awareOrder.clone();
+            Ranking.repair(s.aware, order, group(pt.term), new int[n], new int[n]);
+            pt.awareChurn = churn(order, b.awareRank);
+        } else {
+            pt.blindChurn = churn(Ranking.order(s.blind), b.blindRank);
+            pt.awareChurn = churn(Ranking.order(s.aware), b.awareRank);
+        }
+    }
+
+    // Rows a bonus applies to
+    private Bitmap group(WeightProfile.Term term) {
+        switch (term) {
+            case LOW_INCOME: return table.lowIncome(base.lowIncomeThreshold);
+            case FIRST_GEN:  return table.firstGenBits;
+            case DISABILITY: return table.disabilityBits;
+            case LEGACY:     return table.legacyBits;
+            default:         return table.localBits;
+        }
+    }
+
+    private static double churn(int[] order, int[] baseRank) {
+        if (order.length == 0) return 0.0;
+        long moved = 0;
+        for (int pos = 0; pos < order.length; pos++) moved += Math.abs(pos + 1 - baseRank[order[pos]]);
+        return (double) moved / order.length;
+    }
+}
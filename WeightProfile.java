@@ -0,0 +1,193 @@
+// WeightProfile.java
+// One scoring policy: normalization maxima, blind weights and aware bonuses.
+// Immutable, so one profile can be shared by any number of scoring threads;
+// derive variants with toBuilder().
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.Properties;
+
+public final class WeightProfile {
+    final String name;
+    final double maxGpa, maxTest;
+    final double wGpa, wTest, wExtra, wEssay, wRec;
+    final double lowIncomeThreshold;
+    final double bonusLowIncome, bonusFirstGen, bonusDisability, bonusLegacy, bonusLocal;
+
+    private WeightProfile(Builder b) {
+        name = b.name;
+        maxGpa = b.maxGpa;
+        maxTest = b.maxTest;
+        wGpa = b.wGpa;
+        wTest = b.wTest;
+        wExtra = b.wExtra;
+        wEssay = b.wEssay;
+        wRec = b.wRec;
+        lowIncomeThreshold = b.lowIncomeThreshold;
+        bonusLowIncome = b.bonusLowIncome;
+        bonusFirstGen = b.bonusFirstGen;
+        bonusDisability = b.bonusDisability;
+        bonusLegacy = b.bonusLegacy;
+        bonusLocal = b.bonusLocal;
+    }
+
+    public String name() { return name; }
+
+    // The tunable terms of the formula: five blind weights, then five aware bonuses
+    public enum Term {
+        GPA("wGpa"), TEST("wTest"), EXTRA("wExtra"), ESSAY("wEssay"), REC("wRec"),
+        LOW_INCOME("bonusLowIncome"), FIRST_GEN("bonusFirstGen"), DISABILITY("bonusDisability"),
+        LEGACY("bonusLegacy"), LOCAL("bonusLocal");
+
+        private final String key;
+
+        Term(String key) { this.key = key; }
+
+        // The fromProperties key for this term
+        public String key() { return key; }
+
+        public boolean isBonus() { return ordinal() >= LOW_INCOME.ordinal(); }
+
+        public double get(WeightProfile p) {
+            switch (this) {
+                case GPA:        return p.wGpa;
+                case TEST:       return p.wTest;
+                case EXTRA:      return p.wExtra;
+                case ESSAY:      return p.wEssay;
+                case REC:        return p.wRec;
+                case LOW_INCOME: return p.bonusLowIncome;
+                case FIRST_GEN:  return p.bonusFirstGen;
+                case DISABILITY: return p.bonusDisability;
+                case LEGACY:     return p.bonusLegacy;
+                default:         return p.bonusLocal;
+            }
+        }
+
+        // A copy of p with this term set to v
+        public WeightProfile with(WeightProfile p, double v) {
+            Builder b = p.toBuilder();
+            switch (this) {
+                case GPA:        b.wGpa = v; break;
+                case TEST:       b.wTest = v; break;
+                case EXTRA:      b.wExtra = v; break;
+                case ESSAY:      b.wEssay = v; break;
+                case REC:        b.wRec = v; break;
+                case LOW_INCOME: b.bonusLowIncome = v; break;
+                case FIRST_GEN:  b.bonusFirstGen = v; break;
+                case DISABILITY: b.bonusDisability = v; break;
+                case LEGACY:     b.bonusLegacy = v; break;
+                default:         b.bonusLocal = v; break;
+            }
+            return b.build();
+        }
+    }
+
+    // The defaults written in Admissions, without system property overrides
+    public static final WeightProfile BUILT_IN = new Builder()
+            .name("default")
+            .maxGpa(Admissions.MAX_GPA)
+            .maxTest(Admissions.MAX_TEST)
+            .wGpa(Admissions.W_GPA)
+            .wTest(Admissions.W_TEST)
+            .wExtra(Admissions.W_EXTRA)
+            .wEssay(Admissions.W_ESSAY)
+            .wRec(Admissions.W_REC)
+            .lowIncomeThreshold(Admissions.LOW_INCOME_THRESHOLD)
+            .bonusLowIncome(Admissions.BONUS_LOW_INCOME)
+            .bonusFirstGen(Admissions.BONUS_FIRST_GEN)
+            .bonusDisability(Admissions.BONUS_DISABILITY)
+            .bonusLegacy(Admissions.BONUS_LEGACY)
+            .bonusLocal(Admissions.BONUS_LOCAL)
+            .build();
+
+    // Keys present in p override the matching values of base:
+    // name, maxGpa, maxTest, wGpa, wTest, wExtra, wEssay, wRec, lowIncome,
+    // bonusLowIncome, bonusFirstGen, bonusDisability, bonusLegacy, bonusLocal
+    public static WeightProfile fromProperties(Properties p, WeightProfile base) {
+        Builder b = base.toBuilder();
+        b.name = p.getProperty("name", base.name);
+        b.maxGpa = number(p, "maxGpa", base.maxGpa);
+        b.maxTest = number(p, "maxTest", base.maxTest);
+        b.wGpa = number(p, "wGpa", base.wGpa);
+        b.wTest = number(p, "wTest", base.wTest);
+        b.wExtra = number(p, "wExtra", base.wExtra);
+        b.wEssay = number(p, "wEssay", base.wEssay);
+        b.wRec = number(p, "wRec", base.wRec);
+        b.lowIncomeThreshold = number(p, "lowIncome", base.lowIncomeThreshold);
+        b.bonusLowIncome = number(p, "bonusLowIncome", base.bonusLowIncome);
+        b.bonusFirstGen = number(p, "bonusFirstGen", base.bonusFirstGen);
+        b.bonusDisability = number(p, "bonusDisability", base.bonusDisability);
+        b.bonusLegacy = number(p, "bonusLegacy", base.bonusLegacy);
+        b.bonusLocal = number(p, "bonusLocal", base.bonusLocal);
+        return b.build();
+    }
+
+    // A .properties file in the fromProperties format; the name defaults to the file name
+    public static WeightProfile load(Path file, WeightProfile base) throws IOException {
+        Properties p = new Properties();
+        try (Reader r = Files.newBufferedReader(file)) {
+            p.load(r);
+        }
+        if (p.getProperty("name") == null) p.setProperty("name", file.getFileName().toString());
+        return fromProperties(p, base);
+    }
+
+    private static double number(Properties p, String key, double fallback) {
+        String v = p.getProperty(key);
+        if (v == null) return fallback;
+        try {
+            return Double.parseDouble(v.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad value for " + key + ": " + v, e);
+        }
+    }
+
+    public Builder toBuilder() {
+        Builder b = new Builder();
+        b.name = name;
+        b.maxGpa = maxGpa;
+        b.maxTest = maxTest;
+        b.wGpa = wGpa;
+        b.wTest = wTest;
+        b.wExtra = wExtra;
+        b.wEssay = wEssay;
+        b.wRec = wRec;
+        b.lowIncomeThreshold = lowIncomeThreshold;
+        b.bonusLowIncome = bonusLowIncome;
+        b.bonusFirstGen = bonusFirstGen;
+        b.bonusDisability = bonusDisability;
+        b.bonusLegacy = bonusLegacy;
+        b.bonusLocal = bonusLocal;
+        return b;
+    }
+
+    public static class Builder {
+        private String name = "custom";
+        private double maxGpa, maxTest;
+        private double wGpa, wTest, wExtra, wEssay, wRec;
+        private double lowIncomeThreshold;
+        private double bonusLowIncome, bonusFirstGen, bonusDisability, bonusLegacy, bonusLocal;
+
+        public Builder name(String v)               { name = v; return this; }
+        public Builder maxGpa(double v)             { maxGpa = v; return this; }
+        public Builder maxTest(double v)            { maxTest = v; return this; }
+        public Builder wGpa(double v)               { wGpa = v; return this; }
+        public Builder wTest(double v)              { wTest = v; return this; }
+        public Builder wExtra(double v)             { wExtra = v; return this; }
+        public Builder wEssay(double v)             { wEssay = v; return this; }
+        public Builder wRec(double v)               { wRec = v; return this; }
+        public Builder lowIncomeThreshold(double v) { lowIncomeThreshold = v; return this; }
+        public Builder bonusLowIncome(double v)     { bonusLowIncome = v; return this; }
+        public Builder bonusFirstGen(double v)      { bonusFirstGen = v; return this; }
+        public Builder bonusDisability(double v)    { bonusDisability = v; return this; }
+        public Builder bonusLegacy(double v)        { bonusLegacy = v; return this; }
+        public Builder bonusLocal(double v)         { bonusLocal = v; return this; }
+
+        public WeightProfile build() { return new WeightProfile(this); }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
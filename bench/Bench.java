@@ -0,0 +1,188 @@
+// Bench.java
+// Benchmarks for each stage of the pipeline (CSV parsing, file ingestion,
+// scoring, both rank sorts, fairness aggregation), run at several population
+// sizes, with results written as JSON so runs can be compared over time.
+//
+//   javac -encoding UTF-8 -d out *.java bench/*.java
+//   java -Xmx8g -cp out Bench [--sizes=10,1000,100000,1000000,10000000]
+//        [--only=score,rankAware] [--warmup=3] [--iterations=5] [--time=500] [--json=bench.json]
+//
+// Each benchmark runs warmup iterations, then measured ones; an iteration
+// repeats the operation until --time milliseconds have passed and records the
+// mean time per operation. Sizes that would not fit in the heap are skipped.
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+public class Bench {
+
+    // Rough heap needed per row: table columns, CSV bytes, scores, orders
+    static final long BYTES_PER_ROW = 500;
+
+    static int warmup = 3, iterations = 5;
+    static long iterationNanos = 500_000_000L;
+
+    // Results of the operations, so the JIT cannot drop them
+    static volatile long sink;
+
+    static class Result {
+        final String benchmark;
+        final int size;
+        final double[] nsPerOp;
+
+        Result(String benchmark, int size, double[] nsPerOp) {
+            this.benchmark = benchmark;
+            this.size = size;
+            this.nsPerOp = nsPerOp;
+        }
+
+        double mean() {
+            double s = 0;
+            for (double v : nsPerOp) s += v;
+            return s / nsPerOp.length;
+        }
+
+        double stdev() {
+            if (nsPerOp.length < 2) return 0.0;
+            double m = mean(), s = 0;
+            for (double v : nsPerOp) s += (v - m) * (v - m);
+            return Math.sqrt(s / (nsPerOp.length - 1));
+        }
+
+        double rowsPerSecond() {
+            return size * 1e9 / mean();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = {10, 1_000, 100_000, 1_000_000, 10_000_000};
+        Set<String> only = null;
+        String json = "bench.json";
+        for (String arg : args) {
+            if (arg.startsWith("--sizes=")) {
+                String[] p = arg.substring("--sizes=".length()).split(",");
+                sizes = new int[p.length];
+                for (int i = 0; i < p.length; i++) sizes[i] = Integer.parseInt(p[i].trim());
+            } else if (arg.startsWith("--only=")) {
+                only = new HashSet<>(Arrays.asList(arg.substring("--only=".length()).split(",")));
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Integer.parseInt(arg.substring("--warmup=".length()));
+            } else if (arg.startsWith("--iterations=")) {
+                iterations = Math.max(1, Integer.parseInt(arg.substring("--iterations=".length())));
+            } else if (arg.startsWith("--time=")) {
+                iterationNanos = Long.parseLong(arg.substring("--time=".length())) * 1_000_000L;
+            } else if (arg.startsWith("--json=")) {
+                json = arg.substring("--json=".length());
+            } else {
+                System.out.println("Unknown option: " + arg);
+                return;
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        System.out.printf("%-12s | %10s | %14s | %12s | %14s%n", "Benchmark", "Size", "ns/op", "stdev", "rows/s");
+        for (int size : sizes) {
+            long need = size * BYTES_PER_ROW;
+            if (need > Runtime.getRuntime().maxMemory()) {
+                System.out.printf("Skipping size %d: needs about %d MB of heap (-Xmx)%n", size, need >> 20);
+                continue;
+            }
+            runSize(size, only, results);
+        }
+
+        try (Writer w = Files.newBufferedWriter(Paths.get(json))) {
+            writeJson(w, results);
+        }
+        System.out.println("Wrote " + json);
+    }
+
+    private static void runSize(int size, Set<String> only, List<Result> results) throws IOException {
+        Path file = Files.createTempFile("bench-applicants", ".csv");
+        try {
+            new ApplicantGenerator(42).malformedRate(0).write(file, size, Runtime.getRuntime().availableProcessors());
+            byte[] csv = Files.readAllBytes(file);
+            ApplicantTable table = Main.readTable(file.toString());
+            Scores scores = Admissions.score(table, 0.82);
+            FairnessAggregator fairness = new FairnessAggregator(Main.groups(table, Admissions.DEFAULT));
+
+            Map<String, LongSupplier> ops = new LinkedHashMap<>();
+            ops.put("parse", () -> parse(csv));
+            ops.put("ingest", () -> Main.readTable(file.toString()).size());
+            ops.put("blindScores", () -> {
+                double[] out = new double[size];
+                Admissions.blindScores(table, 0, size, out);
+                return Double.doubleToRawLongBits(out[size - 1]);
+            });
+            ops.put("score", () -> Admissions.score(table, 0.82).awareAdmitted.cardinality());
+            ops.put("rankBlind", () -> Ranking.order(scores.blind)[0]);
+            ops.put("rankAware", () -> Ranking.order(scores.aware)[0]);
+            ops.put("fairness", () -> fairness.run(scores.blindAdmitted, scores.awareAdmitted, size).population());
+
+            for (Map.Entry<String, LongSupplier> op : ops.entrySet()) {
+                if (only != null && !only.contains(op.getKey())) continue;
+                Result r = measure(op.getKey(), size, op.getValue());
+                results.add(r);
+                System.out.printf("%-12s | %10d | %14.1f | %12.1f | %14.0f%n",
+                        r.benchmark, r.size, r.mean(), r.stdev(), r.rowsPerSecond());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Parses an in-memory CSV into a table with Main.readTable's loop:
+    // the ingest stage without file I/O
+    private static long parse(byte[] csv) {
+        LineReader lines = new LineReader(new ByteArrayInputStream(csv));
+        CsvParser p = new CsvParser();
+        ApplicantTable table = new ApplicantTable();
+        try {
+            lines.next(); // header
+            while (lines.next()) {
+                if (lines.isBlank()) continue;
+                if (p.split(lines.buffer(), lines.start(), lines.length()) < 14) continue;
+                table.addRow(p);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return table.size();
+    }
+
+    private static Result measure(String name, int size, LongSupplier op) {
+        for (int i = 0; i < warmup; i++) iteration(op);
+        double[] ns = new double[iterations];
+        for (int i = 0; i < iterations; i++) ns[i] = iteration(op);
+        return new Result(name, size, ns);
+    }
+
+    // Mean ns per operation over at least iterationNanos (and one operation)
+    private static double iteration(LongSupplier op) {
+        long ops = 0, acc = 0;
+        long start = System.nanoTime(), elapsed;
+        do {
+            acc += op.getAsLong();
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        sink += acc;
+        return (double) elapsed / ops;
+    }
+
+    // One object per result, in the spirit of JMH's JSON output
+    private static void writeJson(Writer w, List<Result> results) throws IOException {
+        w.write("[\n");
+        for (int k = 0; k < results.size(); k++) {
+            Result r = results.get(k);
+            StringBuilder raw = new StringBuilder();
+            for (int i = 0; i < r.nsPerOp.length; i++) raw.append(i == 0 ? "" : ",").append(r.nsPerOp[i]);
+            w.write(String.format(Locale.ROOT,
+                    "  {\"benchmark\":\"%s\",\"params\":{\"size\":%d},\"mode\":\"avgt\",\"unit\":\"ns/op\","
+                    + "\"score\":%.3f,\"stdev\":%.3f,\"rowsPerSecond\":%.1f,\"rawData\":[%s]}%s%n",
+                    r.benchmark, r.size, r.mean(), r.stdev(), r.rowsPerSecond(), raw, k + 1 < results.size() ? "," : ""));
+        }
+        w.write("]\n");
+    }
+}
@@ -0,0 +1,320 @@
+// EquivalenceCheck.java
+// Fuzzes the equivalences the fast paths promise, so a later change that
+// makes them drift fails loudly instead of silently changing results:
+//   - CsvParser.intValue / doubleValue / moneyValue accept exactly what
+//     Integer.parseInt / Double.parseDouble accept, with bit-identical values
+//   - Admissions.blindScores and the fused Admissions.score give the same
+//     bits (and decisions) as the per-object blindScore / awareScore
+//   - CompiledScorer gives the same bits as Admissions.score
+//   - IncrementalScorer, after any sequence of set / apply / setCutoff, has
+//     the scores, decisions and rankings of a full rescore
+//
+//   javac -encoding UTF-8 -d out *.java bench/*.java
+//   java -cp out EquivalenceCheck [--cases=1000000] [--rows=200000] [--profiles=50] [--steps=100] [--seed=1]
+//
+// Prints one line per check and exits with status 1 on the first mismatches.
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public class EquivalenceCheck {
+
+    // Mismatches printed per check before giving up
+    static final int MAX_REPORTED = 5;
+
+    static int failures;
+
+    public static void main(String[] args) {
+        int cases = 1_000_000, rows = 200_000, profiles = 50, steps = 100;
+        long seed = 1;
+        for (String arg : args) {
+            if (arg.startsWith("--cases=")) cases = Integer.parseInt(arg.substring("--cases=".length()));
+            else if (arg.startsWith("--rows=")) rows = Integer.parseInt(arg.substring("--rows=".length()));
+            else if (arg.startsWith("--profiles=")) profiles = Integer.parseInt(arg.substring("--profiles=".length()));
+            else if (arg.startsWith("--steps=")) steps = Integer.parseInt(arg.substring("--steps=".length()));
+            else if (arg.startsWith("--seed=")) seed = Long.parseLong(arg.substring("--seed=".length()));
+            else {
+                System.out.println("Unknown option: " + arg);
+                System.exit(2);
+            }
+        }
+
+        SplittableRandom rng = new SplittableRandom(seed);
+        checkInts(rng, cases);
+        checkDoubles(rng, cases);
+        checkMoney(rng, cases);
+
+        ApplicantTable table = table(rng, rows);
+        checkScores(table, Admissions.DEFAULT, 0.82);
+        for (int k = 1; k <= profiles; k++) checkScores(table, profile(rng, "random " + k), rng.nextDouble());
+        checkIncremental(rng, table, steps);
+        System.out.println(failures == 0 ? "OK" : failures + " check(s) FAILED");
+        if (failures > 0) System.exit(1);
+    }
+
+    // ---- parsing ----
+
+    private static void checkInts(SplittableRandom rng, int cases) {
+        Check c = new Check("intValue == Integer.parseInt");
+        CsvParser p = new CsvParser();
+        for (int k = 0; k < cases && c.ok(); k++) {
+            String s = intLiteral(rng);
+            p.split(bytes(s), 0, bytes(s).length);
+            int got = p.intValue(0);
+            boolean bad = p.malformedField() >= 0;
+            try {
+                int want = Integer.parseInt(s.trim());
+                if (bad || got != want) c.fail(s, bad ? "rejected" : Integer.toString(got), Integer.toString(want));
+            } catch (NumberFormatException e) {
+                if (!bad) c.fail(s, Integer.toString(got), "NumberFormatException");
+            }
+        }
+        c.done(cases);
+    }
+
+    private static void checkDoubles(SplittableRandom rng, int cases) {
+        Check c = new Check("doubleValue == Double.parseDouble");
+        CsvParser p = new CsvParser();
+        for (int k = 0; k < cases && c.ok(); k++) {
+            String s = doubleLiteral(rng);
+            byte[] b = bytes(s);
+            p.split(b, 0, b.length);
+            compare(c, s, p.doubleValue(0), p.malformedField() >= 0, s.trim());
+        }
+        c.done(cases);
+    }
+
+    // Money fields come quoted, since "$45,000" holds a comma
+    private static void checkMoney(SplittableRandom rng, int cases) {
+        Check c = new Check("moneyValue == Double.parseDouble(field without $ and ,)");
+        CsvParser p = new CsvParser();
+        for (int k = 0; k < cases && c.ok(); k++) {
+            String s = moneyLiteral(rng);
+            byte[] b = bytes('"' + s + '"');
+            p.split(b, 0, b.length);
+            compare(c, s, p.moneyValue(0), p.malformedField() >= 0, s.trim().replace("$", "").replace(",", ""));
+        }
+        c.done(cases);
+    }
+
+    private static void compare(Check c, String input, double got, boolean bad, String reference) {
+        try {
+            double want = Double.parseDouble(reference);
+            if (bad || Double.doubleToLongBits(got) != Double.doubleToLongBits(want)) {
+                c.fail(input, bad ? "rejected" : Double.toString(got), Double.toString(want));
+            }
+        } catch (NumberFormatException e) {
+            if (!bad) c.fail(input, Double.toString(got), "NumberFormatException");
+        }
+    }
+
+    private static final String[] ODD = {
+        "", " ", "-", "+", ".", "e5", "1e", "1e+", "1.2.3", "1_000", "0x", "0x1p3", "0X1.8P1", "-0x1p-1074",
+        "NaN", "-NaN", "+NaN", "Nan", "Infinity", "-Infinity", "+Infinity", "inf", "1f", "1D", "1.5e3d", "1.5fd",
+        "00000000000000000000001.5", "4.9e-324", "2.4703282292062327e-324", "1.7976931348623157e308", "1e309",
+        "9007199254740993", "0.1000000000000000055511151231257827", "٣٢", "1 ", "1 2", "--1", "+-1",
+    };
+
+    private static String intLiteral(SplittableRandom rng) {
+        switch (rng.nextInt(6)) {
+            case 0: return ODD[rng.nextInt(ODD.length)];
+            case 1: {
+                long[] edge = {Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE + 1L, Integer.MIN_VALUE - 1L, 0, -0};
+                return Long.toString(edge[rng.nextInt(edge.length)] + rng.nextInt(3) - 1);
+            }
+            case 2: return garbage(rng, "0123456789+- ٣", 6);
+            default: {
+                StringBuilder sb = new StringBuilder(sign(rng));
+                int digits = rng.nextInt(13);
+                for (int i = 0; i < digits; i++) sb.append((char) ('0' + rng.nextInt(10)));
+                return pad(rng, sb.toString());
+            }
+        }
+    }
+
+    private static String doubleLiteral(SplittableRandom rng) {
+        switch (rng.nextInt(8)) {
+            case 0: return ODD[rng.nextInt(ODD.length)];
+            case 1: return Double.toString(Double.longBitsToDouble(rng.nextLong()));
+            case 2: return Double.toString(rng.nextDouble() * Math.pow(10, rng.nextInt(-30, 30)));
+            case 3: return garbage(rng, "0123456789.eE+-fdxNaIny ", 10);
+            default: {
+                StringBuilder sb = new StringBuilder(sign(rng));
+                int whole = rng.nextInt(20), frac = rng.nextInt(20);
+                for (int i = 0; i < whole; i++) sb.append((char) ('0' + rng.nextInt(10)));
+                if (rng.nextInt(4) > 0) sb.append('.');
+                for (int i = 0; i < frac; i++) sb.append((char) ('0' + rng.nextInt(10)));
+                if (rng.nextInt(4) == 0) sb.append(rng.nextBoolean() ? 'e' : 'E').append(sign(rng)).append(rng.nextInt(400));
+                if (rng.nextInt(10) == 0) sb.append("fFdD".charAt(rng.nextInt(4)));
+                return pad(rng, sb.toString());
+            }
+        }
+    }
+
+    private static String moneyLiteral(SplittableRandom rng) {
+        String s = doubleLiteral(rng);
+        if (rng.nextBoolean()) {
+            StringBuilder sb = new StringBuilder(s);
+            int extra = rng.nextInt(4);
+            for (int i = 0; i < extra; i++) sb.insert(rng.nextInt(sb.length() + 1), rng.nextBoolean() ? '$' : ',');
+            s = sb.toString();
+        }
+        return s;
+    }
+
+    private static String sign(SplittableRandom rng) {
+        int r = rng.nextInt(6);
+        return r == 0 ? "-" : r == 1 ? "+" : "";
+    }
+
+    private static String pad(SplittableRandom rng, String s) {
+        return rng.nextInt(8) == 0 ? " " + s + "  " : s;
+    }
+
+    private static String garbage(SplittableRandom rng, String alphabet, int maxLength) {
+        StringBuilder sb = new StringBuilder();
+        int n = rng.nextInt(maxLength + 1);
+        for (int i = 0; i < n; i++) sb.append(alphabet.charAt(rng.nextInt(alphabet.length())));
+        return sb.toString();
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // ---- scoring ----
+
+    private static void checkScores(ApplicantTable t, WeightProfile p, double cutoff) {
+        int n = t.size();
+        Check c = new Check(String.format("blindScores / score / CompiledScorer == per-object scores, %s at %.3f", p.name(), cutoff));
+        double[] blind = new double[n];
+        Admissions.blindScores(t, 0, n, blind, p);
+        Scores fused = Admissions.score(t, cutoff, p);
+        Scores compiled = ScorerCompiler.compile(p).score(t, cutoff);
+        for (int i = 0; i < n && c.ok(); i++) {
+            Applicant a = t.get(i);
+            double b = Admissions.blindScore(a, p), w = Admissions.awareScore(a, p);
+            same(c, i, "blindScores", blind[i], b);
+            same(c, i, "score.blind", fused.blind(i), b);
+            same(c, i, "score.aware", fused.aware(i), w);
+            same(c, i, "compiled.blind", compiled.blind(i), b);
+            same(c, i, "compiled.aware", compiled.aware(i), w);
+            if (fused.blindAdmitted(i) != (b >= cutoff) || fused.awareAdmitted(i) != (w >= cutoff)
+                    || compiled.blindAdmitted(i) != (b >= cutoff) || compiled.awareAdmitted(i) != (w >= cutoff)) {
+                c.fail("row " + i, "decision", "score >= cutoff");
+            }
+        }
+        c.done(n);
+    }
+
+    // Random single-term changes (small steps, zeros, non-finite values), with
+    // an occasional whole new profile or cutoff, each compared to a full rescore
+    private static void checkIncremental(SplittableRandom rng, ApplicantTable t, int steps) {
+        Check c = new Check("IncrementalScorer == full rescore and Ranking.order");
+        double[] pool = {0, -0.0, 0.3, 0.05, -0.02, 1, Double.NaN, 0.45, Double.POSITIVE_INFINITY};
+        WeightProfile.Term[] terms = WeightProfile.Term.values();
+        IncrementalScorer inc = new IncrementalScorer(t, Admissions.DEFAULT, 0.82);
+        for (int step = 1; step <= steps && c.ok(); step++) {
+            String what;
+            int r = rng.nextInt(20);
+            if (r == 0) {
+                inc.apply(profile(rng, "random step " + step));
+                what = "apply(random profile)";
+            } else if (r == 1) {
+                inc.setCutoff(rng.nextDouble());
+                what = "setCutoff(" + inc.cutoff() + ")";
+            } else {
+                WeightProfile.Term term = terms[rng.nextInt(terms.length)];
+                double value = rng.nextInt(4) == 0 ? pool[rng.nextInt(pool.length)]
+                        : term.get(inc.profile()) + (rng.nextDouble() - 0.5) * 0.02;
+                inc.set(term, value);
+                what = "set(" + term + ", " + value + ")";
+            }
+
+            Scores full = Admissions.score(t, inc.cutoff(), inc.profile());
+            Scores got = inc.scores();
+            for (int i = 0; i < t.size() && c.ok(); i++) {
+                same(c, i, "step " + step + " " + what + " blind", got.blind(i), full.blind(i));
+                same(c, i, "step " + step + " " + what + " aware", got.aware(i), full.aware(i));
+                if (got.blindAdmitted(i) != full.blindAdmitted(i) || got.awareAdmitted(i) != full.awareAdmitted(i)) {
+                    c.fail("row " + i + " step " + step + " " + what, "decision", "full rescore's decision");
+                }
+            }
+            if (!Arrays.equals(inc.blindOrder(), Ranking.order(full.blind))) c.fail("step " + step + " " + what, "blindOrder", "Ranking.order");
+            if (!Arrays.equals(inc.awareOrder(), Ranking.order(full.aware))) c.fail("step " + step + " " + what, "awareOrder", "Ranking.order");
+        }
+        c.done(steps);
+    }
+
+    private static void same(Check c, int row, String what, double got, double want) {
+        if (Double.doubleToLongBits(got) != Double.doubleToLongBits(want)) {
+            c.fail("row " + row + " " + what, Double.toString(got), Double.toString(want));
+        }
+    }
+
+    // Realistic rows mixed with the values the kernels must treat exactly like
+    // the per-object code: NaN, infinities, negatives, values past the maxima,
+    // and rows whose features are all zero (where -0.0 can appear)
+    private static ApplicantTable table(SplittableRandom rng, int rows) {
+        double[] odd = {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, -0.0, 0.0, -1, 1.5, 1e300, Double.MIN_VALUE};
+        int[] oddTest = {0, -1, 1600, 1601, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        ApplicantTable t = new ApplicantTable(rows);
+        for (int i = 0; i < rows; i++) {
+            boolean weird = rng.nextInt(8) == 0;
+            if (rng.nextInt(32) == 0) {
+                t.add("Z" + i, 18, "City, S0", "E0", 0.0, false, false, 0.0, 0, -0.0, 0.0, -0.0, false, false);
+                continue;
+            }
+            double gpa = weird && rng.nextBoolean() ? odd[rng.nextInt(odd.length)] * 4 : rng.nextDouble() * 4.2;
+            int test = weird && rng.nextBoolean() ? oddTest[rng.nextInt(oddTest.length)] : 400 + rng.nextInt(1201);
+            double extra = weird && rng.nextBoolean() ? odd[rng.nextInt(odd.length)] : rng.nextDouble();
+            double essay = weird && rng.nextBoolean() ? odd[rng.nextInt(odd.length)] : rng.nextDouble();
+            double rec = weird && rng.nextBoolean() ? odd[rng.nextInt(odd.length)] : rng.nextDouble();
+            double income = weird && rng.nextBoolean() ? odd[rng.nextInt(odd.length)] : rng.nextDouble() * 150_000;
+            t.add("A" + i, 17 + rng.nextInt(5), "City" + rng.nextInt(20) + ", S" + rng.nextInt(5), "E" + rng.nextInt(4), income,
+                    rng.nextInt(10) == 0, rng.nextInt(4) == 0, gpa, test, extra, essay, rec,
+                    rng.nextInt(5) == 0, rng.nextInt(12) == 0);
+        }
+        return t;
+    }
+
+    // Random weights, bonuses and maxima, including zeros, negatives and non-finite
+    // values; a quarter of the profiles have only negative or zero weights
+    private static WeightProfile profile(SplittableRandom rng, String name) {
+        double[] pool = {0, -0.0, 0.3, 0.05, -0.02, 1, Double.NaN, 0.45, Double.POSITIVE_INFINITY};
+        double[] negative = {-0.0, -0.02, -0.3, -1};
+        boolean allNegative = rng.nextInt(4) == 0;
+        WeightProfile p = Admissions.DEFAULT;
+        for (WeightProfile.Term term : WeightProfile.Term.values()) {
+            if (allNegative && !term.isBonus()) p = term.with(p, negative[rng.nextInt(negative.length)]);
+            else if (rng.nextInt(3) == 0) p = term.with(p, pool[rng.nextInt(pool.length)]);
+            else if (rng.nextInt(3) == 0) p = term.with(p, term.get(p) + (rng.nextDouble() - 0.5) * 0.1);
+        }
+        double[] maxes = {4, 0, 1600, 36, Double.NaN, Double.POSITIVE_INFINITY};
+        return p.toBuilder().name(name)
+                .maxGpa(rng.nextInt(4) == 0 ? maxes[rng.nextInt(maxes.length)] : p.maxGpa)
+                .maxTest(rng.nextInt(4) == 0 ? maxes[rng.nextInt(maxes.length)] : p.maxTest)
+                .lowIncomeThreshold(rng.nextInt(4) == 0 ? rng.nextDouble() * 100_000 : p.lowIncomeThreshold)
+                .build();
+    }
+
+    // Mismatch counter for one check
+    private static class Check {
+        final String name;
+        int mismatches;
+
+        Check(String name) { this.name = name; }
+
+        boolean ok() { return mismatches < MAX_REPORTED; }
+
+        void fail(String input, String got, String want) {
+            if (mismatches++ == 0) System.out.println("FAIL " + name);
+            System.out.println("  \"" + input + "\": got " + got + ", expected " + want);
+        }
+
+        void done(long cases) {
+            if (mismatches > 0) failures++;
+            else System.out.println("ok   " + name + " (" + cases + " cases)");
+        }
+    }
+}